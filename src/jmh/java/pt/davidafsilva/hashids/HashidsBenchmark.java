@@ -0,0 +1,83 @@
+package pt.davidafsilva.hashids;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+
+/**
+ * Benchmarks of the encoding and decoding operations, parametrized after the configurations and
+ * inputs exercised by the interoperability tests.
+ *
+ * @author david
+ */
+@State(Scope.Benchmark)
+public class HashidsBenchmark {
+
+  // a salt which is sliced to the desired length
+  private static final String SALT = "this is my very long salt which is used for the benchmarks " +
+      "of the algorithm, sliced to whatever length is being measured";
+
+  @Param({"0", "15", "64"})
+  int saltLength;
+
+  @Param({"default", "1234567890abcdef"})
+  String alphabet;
+
+  @Param({"0", "32", "256"})
+  int minLength;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  int count;
+
+  // the benchmark input
+  private Hashids hashids;
+  private long[] numbers;
+  private String hash;
+  private String hexNumbers;
+  private String hexHash;
+
+  @Setup
+  public void setup() {
+    final String salt = SALT.substring(0, saltLength);
+    hashids = "default".equals(alphabet) ?
+        Hashids.newInstance(salt, minLength) :
+        Hashids.newInstance(salt, alphabet, minLength);
+
+    // 1-to-count sized arrays, like the interoperability tests
+    numbers = new long[count];
+    Arrays.setAll(numbers, i -> i);
+    hash = hashids.encode(numbers);
+
+    // one full chunk of hex digits per number
+    final StringBuilder hex = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      hex.append("507f1f77bcf8");
+    }
+    hexNumbers = hex.toString();
+    hexHash = hashids.encodeHex(hexNumbers);
+  }
+
+  @Benchmark
+  public String encode() {
+    return hashids.encode(numbers);
+  }
+
+  @Benchmark
+  public long[] decode() {
+    return hashids.decode(hash);
+  }
+
+  @Benchmark
+  public String encodeHex() {
+    return hashids.encodeHex(hexNumbers);
+  }
+
+  @Benchmark
+  public String decodeHex() {
+    return hashids.decodeHex(hexHash);
+  }
+}
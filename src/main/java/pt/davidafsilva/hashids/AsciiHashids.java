@@ -0,0 +1,256 @@
+package pt.davidafsilva.hashids;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte oriented view of a {@link Hashids} instance whose hashes are pure ASCII, such as the ones
+ * produced with the {@link Hashids#DEFAULT_ALPHABET default alphabet}. Hashes are encoded into and
+ * decoded from {@code byte[]} arrays and {@link ByteBuffer buffers} (either heap or direct ones),
+ * one byte per character, without being transcoded through strings.
+ *
+ * @author david
+ * @see Hashids#ascii()
+ */
+public final class AsciiHashids {
+
+  // per-thread reusable view of the bytes being decoded
+  private static final ThreadLocal<AsciiSequence> SEQUENCE =
+      ThreadLocal.withInitial(AsciiSequence::new);
+
+  // the backing algorithm
+  private final Hashids hashids;
+
+  /**
+   * Creates a new byte oriented view of the given algorithm instance.
+   *
+   * @param hashids the algorithm instance
+   * @throws IllegalArgumentException if the hashes of the instance are not pure ASCII
+   */
+  AsciiHashids(final Hashids hashids) {
+    if (!hashids.isAscii()) {
+      throw new IllegalArgumentException("alphabet must only contain ASCII characters");
+    }
+    this.hashids = hashids;
+  }
+
+  /**
+   * Returns the algorithm instance backing this view.
+   *
+   * @return the algorithm instance
+   */
+  public Hashids hashids() {
+    return hashids;
+  }
+
+  //-------------------------
+  // Encode
+  //-------------------------
+
+  /**
+   * Encodes the given {@code numbers} into a new array of ASCII bytes.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hash, {@code null} if {@code numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public byte[] encode(final long... numbers) {
+    if (numbers == null) {
+      return null;
+    }
+
+    return hashids.encodeAscii(numbers);
+  }
+
+  /**
+   * Encodes the given {@code numbers} into the given {@code dst} array as ASCII bytes, starting
+   * at {@code offset}.
+   *
+   * @param dst     the destination of the resultant hash
+   * @param offset  the index of {@code dst} where the hash shall be written
+   * @param numbers the numbers to be encoded
+   * @return the amount of bytes written, {@code 0} if {@code numbers} is {@code null}
+   * @throws IllegalArgumentException  if any of the numbers is not supported
+   * @throws IndexOutOfBoundsException if the hash does not fit in {@code dst}
+   */
+  public int encode(final byte[] dst, final int offset, final long... numbers) {
+    if (numbers == null) {
+      return 0;
+    }
+
+    return hashids.encodeAscii(dst, offset, numbers);
+  }
+
+  /**
+   * Encodes the given {@code numbers} into the given {@code dst} buffer as ASCII bytes, starting
+   * at its current position, which is advanced past the hash.
+   *
+   * @param dst     the destination of the resultant hash
+   * @param numbers the numbers to be encoded
+   * @return the given {@code dst} buffer, untouched if {@code numbers} is {@code null}
+   * @throws IllegalArgumentException         if any of the numbers is not supported
+   * @throws java.nio.BufferOverflowException if the hash does not fit in {@code dst}
+   * @throws java.nio.ReadOnlyBufferException if {@code dst} is read-only
+   */
+  public ByteBuffer encode(final ByteBuffer dst, final long... numbers) {
+    if (numbers == null) {
+      return dst;
+    }
+
+    hashids.encodeAscii(dst, numbers);
+    return dst;
+  }
+
+  //-------------------------
+  // Decode
+  //-------------------------
+
+  /**
+   * Decodes the hash contained in the given range of ASCII bytes into his original numeric
+   * representation.
+   *
+   * @param src    the bytes which contain the hash
+   * @param offset the index of the first byte of the hash
+   * @param length the length of the hash
+   * @return an array of long values with each numeric number present in the hash
+   * @throws IllegalArgumentException  if the hash is invalid.
+   * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code src}
+   */
+  public long[] decode(final byte[] src, final int offset, final int length) {
+    final AsciiSequence sequence = sequence().wrap(src, offset, length);
+    try {
+      return hashids.decode(sequence, 0, length);
+    } finally {
+      sequence.clear();
+    }
+  }
+
+  /**
+   * Decodes the hash contained in the remaining bytes of the given {@code src} buffer into his
+   * original numeric representation. The position of the buffer is advanced to its limit.
+   *
+   * @param src the buffer which contains the hash
+   * @return an array of long values with each numeric number present in the hash
+   * @throws IllegalArgumentException if the hash is invalid.
+   */
+  public long[] decode(final ByteBuffer src) {
+    final int length = src.remaining();
+    final AsciiSequence sequence = sequence().wrap(src, src.position(), length);
+    try {
+      final long[] numbers = hashids.decode(sequence, 0, length);
+      src.position(src.limit());
+      return numbers;
+    } finally {
+      sequence.clear();
+    }
+  }
+
+  /**
+   * Decodes the hash contained in the given range of ASCII bytes into the single number it holds.
+   *
+   * @param src    the bytes which contain the hash
+   * @param offset the index of the first byte of the hash
+   * @param length the length of the hash
+   * @return the number present in the hash
+   * @throws IllegalArgumentException  if the hash is invalid or does not hold exactly one number
+   * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code src}
+   */
+  public long decodeOne(final byte[] src, final int offset, final int length) {
+    final AsciiSequence sequence = sequence().wrap(src, offset, length);
+    try {
+      return hashids.decodeOne(sequence, 0, length);
+    } finally {
+      sequence.clear();
+    }
+  }
+
+  /**
+   * Decodes the hash contained in the remaining bytes of the given {@code src} buffer into the
+   * single number it holds. The position of the buffer is advanced to its limit.
+   *
+   * @param src the buffer which contains the hash
+   * @return the number present in the hash
+   * @throws IllegalArgumentException if the hash is invalid or does not hold exactly one number
+   */
+  public long decodeOne(final ByteBuffer src) {
+    final int length = src.remaining();
+    final AsciiSequence sequence = sequence().wrap(src, src.position(), length);
+    try {
+      final long number = hashids.decodeOne(sequence, 0, length);
+      src.position(src.limit());
+      return number;
+    } finally {
+      sequence.clear();
+    }
+  }
+
+  private static AsciiSequence sequence() {
+    // a listener reentering this view while a hash is being decoded gets a sequence of its own,
+    // leaving the one of the outer decoding untouched
+    final AsciiSequence sequence = SEQUENCE.get();
+    return sequence.inUse() ? new AsciiSequence() : sequence;
+  }
+
+  // character view of a range of ASCII bytes, either from an array or from a buffer
+  private static final class AsciiSequence implements CharSequence {
+
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    AsciiSequence wrap(final byte[] array, final int offset, final int length) {
+      if (offset < 0 || length < 0 || length > array.length - offset) {
+        throw new IndexOutOfBoundsException(String.format("invalid range [%d, %d) of array " +
+            "with length %d", offset, (long) offset + length, array.length));
+      }
+      this.array = array;
+      this.offset = offset;
+      this.length = length;
+      return this;
+    }
+
+    AsciiSequence wrap(final ByteBuffer buffer, final int offset, final int length) {
+      if (buffer.hasArray()) {
+        return wrap(buffer.array(), buffer.arrayOffset() + offset, length);
+      }
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+      return this;
+    }
+
+    void clear() {
+      this.array = null;
+      this.buffer = null;
+    }
+
+    boolean inUse() {
+      return array != null || buffer != null;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      final byte b = array != null ? array[offset + index] : buffer.get(offset + index);
+      return (char) (b & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      final StringBuilder sb = new StringBuilder(end - start);
+      for (int i = start; i < end; i++) {
+        sb.append(charAt(i));
+      }
+      return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+      return subSequence(0, length).toString();
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package pt.davidafsilva.hashids;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most a fixed amount of entries, evicting the least recently used
+ * ones once full. The entries are spread among independently locked segments, each one of them an
+ * access ordered {@link LinkedHashMap}, so that concurrent lookups of different keys seldom
+ * contend. The capacity is enforced across the whole cache rather than per segment: once full,
+ * the eldest entry among the eldest entries of each segment, i.e. the least recently used entry of
+ * the whole cache, is evicted.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author david
+ */
+final class BoundedCache<K, V> {
+
+  // segmentation defaults
+  private static final int MAX_SEGMENTS = 16;
+
+  // the maximum amount of entries
+  private final int capacity;
+
+  // the independently locked segments
+  private final Segment<K, V>[] segments;
+
+  // the amount of entries held by all the segments
+  private final AtomicInteger size = new AtomicInteger();
+
+  // statistics
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a new cache with the given capacity.
+   *
+   * @param capacity the maximum amount of entries held by the cache
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  @SuppressWarnings("unchecked")
+  BoundedCache(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("invalid capacity: " + capacity);
+    }
+    this.capacity = capacity;
+
+    // use a power of two amount of segments
+    final int segmentsCount = Integer.highestOneBit(Math.min(capacity, MAX_SEGMENTS));
+    segments = (Segment<K, V>[]) new Segment<?, ?>[segmentsCount];
+    for (int i = 0; i < segmentsCount; i++) {
+      segments[i] = new Segment<>();
+    }
+  }
+
+  /**
+   * Returns the value cached for the given key, if any.
+   *
+   * @param key the key to lookup
+   * @return the cached value, {@code null} if there is none
+   */
+  V get(final K key) {
+    final Segment<K, V> segment = segment(key);
+    final V value;
+    synchronized (segment) {
+      final Node<V> node = segment.entries.get(key);
+      if (node == null) {
+        value = null;
+      } else {
+        node.lastAccess = System.nanoTime();
+        value = node.value;
+      }
+    }
+    (value == null ? misses : hits).increment();
+    return value;
+  }
+
+  /**
+   * Returns the value cached for the given key, computing and caching it if absent. The value is
+   * computed without holding any lock, hence concurrent lookups of the same absent key may compute
+   * it more than once, but all of them return the first value cached.
+   *
+   * @param key      the key to lookup
+   * @param function the function computing the value of the key
+   * @return the cached value
+   */
+  V computeIfAbsent(final K key, final Function<? super K, ? extends V> function) {
+    final V cached = get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    final V value = function.apply(key);
+    final Segment<K, V> segment = segment(key);
+    final Node<V> existing;
+    synchronized (segment) {
+      existing = segment.entries.putIfAbsent(key, new Node<>(value));
+    }
+    if (existing != null) {
+      return existing.value;
+    }
+    added();
+    return value;
+  }
+
+  /**
+   * Caches the given value for the given key, replacing any previous one.
+   *
+   * @param key   the key of the value
+   * @param value the value to be cached
+   */
+  void put(final K key, final V value) {
+    final Segment<K, V> segment = segment(key);
+    final Node<V> previous;
+    synchronized (segment) {
+      previous = segment.entries.put(key, new Node<>(value));
+    }
+    if (previous == null) {
+      added();
+    }
+  }
+
+  /**
+   * Removes every entry from the cache, keeping its statistics.
+   */
+  void clear() {
+    for (final Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size.addAndGet(-segment.entries.size());
+        segment.entries.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the amount of entries currently held by the cache.
+   *
+   * @return the amount of entries
+   */
+  int size() {
+    return size.get();
+  }
+
+  long hits() {
+    return hits.sum();
+  }
+
+  long misses() {
+    return misses.sum();
+  }
+
+  long evictions() {
+    return evictions.sum();
+  }
+
+  private Segment<K, V> segment(final K key) {
+    // spread the higher bits of the hash, which are otherwise ignored by the mask
+    final int hash = key.hashCode();
+    return segments[(hash ^ hash >>> 16) & (segments.length - 1)];
+  }
+
+  private void added() {
+    // evict the least recently used entries of the whole cache while it is over capacity
+    int current = size.incrementAndGet();
+    while (current > capacity && evictEldest()) {
+      current = size.get();
+    }
+  }
+
+  private boolean evictEldest() {
+    // the eldest entry of the cache is the eldest one among the eldest entries of each segment
+    Segment<K, V> victim = null;
+    long eldestAccess = Long.MAX_VALUE;
+    for (final Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        final Iterator<Node<V>> nodes = segment.entries.values().iterator();
+        if (nodes.hasNext()) {
+          final long lastAccess = nodes.next().lastAccess;
+          if (victim == null || lastAccess - eldestAccess < 0) {
+            victim = segment;
+            eldestAccess = lastAccess;
+          }
+        }
+      }
+    }
+    if (victim == null) {
+      return false;
+    }
+
+    // the eldest entry of the segment might have changed meanwhile, which is harmless
+    synchronized (victim) {
+      final Iterator<Node<V>> nodes = victim.entries.values().iterator();
+      if (!nodes.hasNext()) {
+        return true;
+      }
+      nodes.next();
+      nodes.remove();
+    }
+    size.decrementAndGet();
+    evictions.increment();
+    return true;
+  }
+
+  // an access ordered map, whose eldest entry is the least recently used one of the segment
+  private static final class Segment<K, V> {
+
+    private final LinkedHashMap<K, Node<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  // a cached value, along with the time of its last access (guarded by the lock of its segment)
+  private static final class Node<V> {
+
+    private final V value;
+    private long lastAccess;
+
+    private Node(final V value) {
+      this.value = value;
+      this.lastAccess = System.nanoTime();
+    }
+  }
+}
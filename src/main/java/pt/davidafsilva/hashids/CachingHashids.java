@@ -0,0 +1,165 @@
+package pt.davidafsilva.hashids;
+
+/**
+ * Memoizing view of a {@link Hashids} instance, suited for skewed workloads where a few numbers
+ * and hashes account for most of the encodings and decodings. The hashes of single numbers are
+ * cached by number and the numbers of hashes are cached by hash, each cache holding at most a
+ * fixed amount of entries and evicting the least recently used ones once full.
+ *
+ * Since the backing instance is immutable, cached entries never become stale. Invalid inputs are
+ * never cached, and decoded numbers are copied before being returned.
+ *
+ * @author david
+ * @see Hashids#caching(int)
+ */
+public final class CachingHashids {
+
+  // the backing algorithm
+  private final Hashids hashids;
+
+  // the cached hashes and numbers
+  private final BoundedCache<Long, String> hashes;
+  private final BoundedCache<String, long[]> numbers;
+
+  /**
+   * Creates a new caching view of the given algorithm instance.
+   *
+   * @param hashids  the algorithm instance
+   * @param capacity the maximum amount of encodings and of decodings held by the view
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  CachingHashids(final Hashids hashids, final int capacity) {
+    this.hashids = hashids;
+    this.hashes = new BoundedCache<>(capacity);
+    this.numbers = new BoundedCache<>(capacity);
+  }
+
+  /**
+   * Returns the algorithm instance backing this view.
+   *
+   * @return the algorithm instance
+   */
+  public Hashids hashids() {
+    return hashids;
+  }
+
+  //-------------------------
+  // Encode
+  //-------------------------
+
+  /**
+   * Encodes the given {@code number}, reusing its hash if cached.
+   *
+   * @param number the number to be encoded
+   * @return the resultant hash
+   * @throws IllegalArgumentException if the number is not supported
+   */
+  public String encode(final long number) {
+    return hashes.computeIfAbsent(number, hashids::encodeOne);
+  }
+
+  /**
+   * Encodes the given {@code numbers}, reusing the hash of a single number if cached.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hash, {@code null} if {@code numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public String encode(final long... numbers) {
+    if (numbers != null && numbers.length == 1) {
+      return encode(numbers[0]);
+    }
+
+    return hashids.encode(numbers);
+  }
+
+  //-------------------------
+  // Decode
+  //-------------------------
+
+  /**
+   * Decodes the given {@code hash}, reusing its numbers if cached.
+   *
+   * @param hash the hash to be decoded
+   * @return the original numbers of the hash, {@code null} if {@code hash} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid
+   */
+  public long[] decode(final String hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    return numbers.computeIfAbsent(hash, hashids::decode).clone();
+  }
+
+  /**
+   * Decodes the given {@code hash} which holds a single number, reusing it if cached.
+   *
+   * @param hash the hash to be decoded
+   * @return the original number of the hash
+   * @throws IllegalArgumentException if the hash is {@code null}, invalid or does not hold a
+   *                                  single number
+   */
+  public long decodeOne(final String hash) {
+    if (hash == null) {
+      throw new IllegalArgumentException("invalid hash: null");
+    }
+
+    final long[] decoded = numbers.computeIfAbsent(hash, hashids::decode);
+    if (decoded.length != 1) {
+      throw new IllegalArgumentException("invalid hash: " + hash);
+    }
+    return decoded[0];
+  }
+
+  //-------------------------
+  // Statistics
+  //-------------------------
+
+  /**
+   * Returns the amount of encodings and decodings served from the cache.
+   *
+   * @return the amount of hits
+   */
+  public long hitCount() {
+    return hashes.hits() + numbers.hits();
+  }
+
+  /**
+   * Returns the amount of encodings and decodings which were not cached.
+   *
+   * @return the amount of misses
+   */
+  public long missCount() {
+    return hashes.misses() + numbers.misses();
+  }
+
+  /**
+   * Returns the amount of entries evicted from the cache to honor its capacity.
+   *
+   * @return the amount of evictions
+   */
+  public long evictionCount() {
+    return hashes.evictions() + numbers.evictions();
+  }
+
+  /**
+   * Returns the ratio of encodings and decodings served from the cache, {@code 1} if there was
+   * none yet.
+   *
+   * @return the hit rate, between {@code 0} and {@code 1}
+   */
+  public double hitRate() {
+    final long hits = hitCount();
+    final long requests = hits + missCount();
+    return requests == 0 ? 1 : (double) hits / requests;
+  }
+
+  /**
+   * Removes every cached entry, keeping the statistics.
+   */
+  public void clear() {
+    hashes.clear();
+    numbers.clear();
+  }
+}
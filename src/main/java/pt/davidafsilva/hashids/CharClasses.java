@@ -0,0 +1,87 @@
+package pt.davidafsilva.hashids;
+
+import java.util.Arrays;
+
+/**
+ * Classifies characters as part of the alphabet (by their position in it), separators, guards or
+ * invalid ones. ASCII characters are classified by a dense table, while wider characters are
+ * looked up in a sorted one, keeping the memory footprint small regardless of the alphabet.
+ *
+ * @author david
+ */
+final class CharClasses {
+
+  // the classes of characters which are not part of the alphabet
+  static final int INVALID = -1;
+  static final int SEPARATOR = -2;
+  static final int GUARD = -3;
+
+  // the characters classified by the dense table
+  private static final int DENSE_LENGTH = 128;
+
+  // the classes of the ASCII characters
+  private final int[] dense = new int[DENSE_LENGTH];
+
+  // the sorted wider characters, along with their classes
+  private final char[] wide;
+  private final int[] wideClasses;
+
+  /**
+   * Creates a new classification of the given disjoint sets of characters.
+   *
+   * @param alphabet   the alphabet characters, classified by their position
+   * @param separators the separator characters
+   * @param guards     the guard characters
+   */
+  CharClasses(final char[] alphabet, final char[] separators, final char[] guards) {
+    Arrays.fill(dense, INVALID);
+
+    // classify the ASCII characters, packing the wider ones with their classes for sorting
+    final long[] packed = new long[alphabet.length + separators.length + guards.length];
+    int wideLength = 0;
+    for (int i = 0; i < packed.length; i++) {
+      final char c;
+      final int charClass;
+      if (i < alphabet.length) {
+        c = alphabet[i];
+        charClass = i;
+      } else if (i < alphabet.length + separators.length) {
+        c = separators[i - alphabet.length];
+        charClass = SEPARATOR;
+      } else {
+        c = guards[i - alphabet.length - separators.length];
+        charClass = GUARD;
+      }
+
+      if (c < DENSE_LENGTH) {
+        dense[c] = charClass;
+      } else {
+        packed[wideLength++] = (long) c << Integer.SIZE | (charClass & 0xffffffffL);
+      }
+    }
+
+    // sort the wider characters for binary searching them
+    Arrays.sort(packed, 0, wideLength);
+    wide = new char[wideLength];
+    wideClasses = new int[wideLength];
+    for (int i = 0; i < wideLength; i++) {
+      wide[i] = (char) (packed[i] >>> Integer.SIZE);
+      wideClasses[i] = (int) packed[i];
+    }
+  }
+
+  /**
+   * Returns the class of the given character: its position in the alphabet, or one of
+   * {@link #SEPARATOR}, {@link #GUARD} and {@link #INVALID}.
+   *
+   * @param c the character to classify
+   * @return the class of the character
+   */
+  int classOf(final char c) {
+    if (c < DENSE_LENGTH) {
+      return dense[c];
+    }
+    final int idx = Arrays.binarySearch(wide, c);
+    return idx < 0 ? INVALID : wideClasses[idx];
+  }
+}
@@ -1,16 +1,27 @@
 package pt.davidafsilva.hashids;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of the <a href="http://hashids.org/">Hashids</a> protocol.
@@ -43,9 +54,24 @@ public class Hashids {
   private static final double GUARD_THRESHOLD = 12;
   private static final double SEPARATOR_THRESHOLD = 3.5;
   private static final int MIN_ALPHABET_LENGTH = 16;
-  private static final Pattern HEX_VALUES_PATTERN = Pattern.compile("[\\w\\W]{1,12}");
+  private static final int HEX_CHUNK_LENGTH = 12;
+  private static final int HEX_CHUNK_BITS = HEX_CHUNK_LENGTH * 4;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final int ARRAY_HEADER_SIZE = 16;
+  private static final char MAX_ASCII_CHAR = 127;
+  private static final int MIN_PARALLEL_CHUNK_SIZE = 1024;
+  private static final int PARALLEL_CHUNKS_PER_WORKER = 4;
+
+  // decoding outcomes
+  static final int INVALID_HASH = -1;
+  private static final int INVALID_ALPHABET = -2;
+  private static final int REFERENCE_SIZE = 8;
+
+  // per-thread reusable buffers, shared by every instance
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
   // algorithm defaults
+  public static final long DEFAULT_PRECOMPUTED_TABLES_LIMIT = 1 << 20;
   public static final char[] DEFAULT_ALPHABET = {
       'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
       'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
@@ -65,7 +91,14 @@ public class Hashids {
   private final int minLength;
 
   // auxiliary structure for fast reads
-  private final Set<Character> separatorsSet;
+  private final CharClasses charClasses;
+  private final long[] digitPowers;
+
+  // first round alphabets indexed by the lottery position, only available when precomputed
+  private final char[][] lotteryAlphabets;
+
+  // the listener of the operations, if instrumented
+  private final HashidsListener listener;
 
   /**
    * Creates a new instance of the algorithm with the given configuration.
@@ -116,10 +149,51 @@ public class Hashids {
       this.alphabet = Arrays.copyOfRange(tmpAlphabet, guards.length, tmpAlphabet.length);
     }
 
-    // create the separators set
-    separatorsSet = IntStream.range(0, separators.length)
-        .mapToObj(idx -> separators[idx])
-        .collect(Collectors.toSet());
+    // create the auxiliary structures
+    this.charClasses = new CharClasses(this.alphabet, separators, guards);
+    this.digitPowers = digitPowers(this.alphabet.length);
+    this.lotteryAlphabets = null;
+    this.listener = null;
+  }
+
+  /**
+   * Creates a new instance of the algorithm with the given prepared configuration, which is
+   * already filtered and shuffled.
+   *
+   * @param config the prepared configuration
+   */
+  private Hashids(final PreparedConfig config) {
+    this.alphabet = Arrays.copyOf(config.alphabet, config.alphabet.length);
+    this.separators = Arrays.copyOf(config.separators, config.separators.length);
+    this.salt = Arrays.copyOf(config.salt, config.salt.length);
+    this.guards = Arrays.copyOf(config.guards, config.guards.length);
+    this.minLength = config.minLength;
+
+    // create the auxiliary structures
+    this.charClasses = new CharClasses(this.alphabet, separators, guards);
+    this.digitPowers = digitPowers(this.alphabet.length);
+    this.lotteryAlphabets = null;
+    this.listener = null;
+  }
+
+  /**
+   * Creates a copy of the given instance with the specified first round alphabets and listener.
+   *
+   * @param source           the instance to be copied
+   * @param lotteryAlphabets the first round alphabets, indexed by the lottery position
+   * @param listener         the listener of the operations, {@code null} if not instrumented
+   */
+  private Hashids(final Hashids source, final char[][] lotteryAlphabets,
+      final HashidsListener listener) {
+    this.alphabet = source.alphabet;
+    this.separators = source.separators;
+    this.salt = source.salt;
+    this.guards = source.guards;
+    this.minLength = source.minLength;
+    this.charClasses = source.charClasses;
+    this.digitPowers = source.digitPowers;
+    this.lotteryAlphabets = lotteryAlphabets;
+    this.listener = listener;
   }
 
   //-------------------------
@@ -249,6 +323,130 @@ public class Hashids {
     return new Hashids(salt, alphabet, minLength);
   }
 
+  /**
+   * Returns a new instance of the algorithm with the given prepared configuration, as produced by
+   * {@link #prepare()}. Unlike the other factory methods, the alphabet is neither filtered nor
+   * shuffled again.
+   *
+   * @param config the prepared configuration
+   * @return a new instance of the algorithm
+   */
+  public static Hashids restore(final PreparedConfig config) {
+    return new Hashids(config);
+  }
+
+  /**
+   * Returns the prepared configuration of this instance, holding its final alphabet, separators
+   * and guards, from which an equivalent instance is {@link #restore(PreparedConfig) restored}
+   * without repeating the preparation steps.
+   *
+   * @return the prepared configuration of this instance
+   */
+  public PreparedConfig prepare() {
+    return new PreparedConfig(salt, alphabet, separators, guards, minLength);
+  }
+
+  //-------------------------
+  // Precomputation
+  //-------------------------
+
+  /**
+   * Returns a variant of this instance that holds the alphabets derived from each possible lottery
+   * character, sparing the encoding of the first number (and the decoding of the first block) from
+   * shuffling the alphabet. The memory used by those tables is bounded by
+   * {@link #DEFAULT_PRECOMPUTED_TABLES_LIMIT}.
+   *
+   * @return the precomputed variant of this instance
+   * @throws IllegalArgumentException if the tables would exceed the memory limit
+   * @see #precomputedTablesSize()
+   */
+  public Hashids precomputed() {
+    return precomputed(DEFAULT_PRECOMPUTED_TABLES_LIMIT);
+  }
+
+  /**
+   * Returns a variant of this instance that holds the alphabets derived from each possible lottery
+   * character, sparing the encoding of the first number (and the decoding of the first block) from
+   * shuffling the alphabet.
+   *
+   * @param maxTablesSize the maximum amount of memory, in bytes, that the tables may use
+   * @return the precomputed variant of this instance
+   * @throws IllegalArgumentException if the tables would exceed the memory limit
+   * @see #precomputedTablesSize()
+   */
+  public Hashids precomputed(final long maxTablesSize) {
+    if (lotteryAlphabets != null) {
+      return this;
+    }
+
+    // validate the memory requirements
+    final long tablesSize = tablesSize(alphabet.length);
+    if (tablesSize > maxTablesSize) {
+      throw new IllegalArgumentException(String.format("precomputed tables require %d bytes, " +
+          "which exceeds the limit: %d", tablesSize, maxTablesSize));
+    }
+
+    // derive the alphabet of each lottery
+    final char[][] tables = new char[alphabet.length][];
+    final char[] newSalt = new char[alphabet.length];
+    for (int i = 0; i < alphabet.length; i++) {
+      tables[i] = Arrays.copyOf(alphabet, alphabet.length);
+      deriveNewAlphabet(tables[i], salt, alphabet[i], newSalt);
+    }
+    return new Hashids(this, tables, listener);
+  }
+
+  /**
+   * Returns the approximate amount of memory, in bytes, used by the precomputed tables of this
+   * instance.
+   *
+   * @return the size of the precomputed tables, {@code 0} if this instance is not precomputed
+   * @see #precomputed()
+   */
+  public long precomputedTablesSize() {
+    return lotteryAlphabets == null ? 0 : tablesSize(alphabet.length);
+  }
+
+  //-------------------------
+  // Views
+  //-------------------------
+
+  /**
+   * Returns a byte oriented view of this instance, which encodes into and decodes from ASCII bytes
+   * without transcoding them through strings.
+   *
+   * @return the ASCII view of this instance
+   * @throws IllegalArgumentException if the alphabet of this instance is not pure ASCII
+   */
+  public AsciiHashids ascii() {
+    return new AsciiHashids(this);
+  }
+
+  /**
+   * Returns a view of this instance which memoizes the hashes of single numbers and the numbers of
+   * hashes, holding at most {@code capacity} entries of each kind.
+   *
+   * @param capacity the maximum amount of encodings and of decodings held by the view
+   * @return the caching view of this instance
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public CachingHashids caching(final int capacity) {
+    return new CachingHashids(this, capacity);
+  }
+
+  /**
+   * Returns a variant of this instance which notifies the given {@code listener} of each encoding
+   * and decoding, along with its duration. Instances without a listener are not instrumented at
+   * all, which is the case of every instance unless created by this method.
+   *
+   * @param listener the listener of the operations, {@code null} to remove the current one
+   * @return the instrumented variant of this instance
+   * @see HashidsMetrics
+   */
+  public Hashids withListener(final HashidsListener listener) {
+    return new Hashids(this, lotteryAlphabets, listener);
+  }
+
   //-------------------------
   // Encode
   //-------------------------
@@ -268,336 +466,1829 @@ public class Hashids {
       return null;
     }
 
-    // remove the prefix, if present
-    final String hex = hexNumbers.startsWith("0x") || hexNumbers.startsWith("0X") ?
-        hexNumbers.substring(2) : hexNumbers;
+    // skip the prefix, if present
+    final int start = hexNumbers.startsWith("0x") || hexNumbers.startsWith("0X") ? 2 : 0;
+
+    // get the associated long value of each chunk, prefixed with a marker digit
+    final Scratch scratch = SCRATCH.get();
+    final int count = (hexNumbers.length() - start + HEX_CHUNK_LENGTH - 1) / HEX_CHUNK_LENGTH;
+    final long[] values = scratch.numbers(count);
+    for (int i = 0; i < count; i++) {
+      final int chunkStart = start + i * HEX_CHUNK_LENGTH;
+      final int chunkEnd = Math.min(chunkStart + HEX_CHUNK_LENGTH, hexNumbers.length());
+      long value = 1;
+      for (int j = chunkStart; j < chunkEnd; j++) {
+        final int digit = Character.digit(hexNumbers.charAt(j), 16);
+        if (digit < 0) {
+          throw new NumberFormatException("invalid hex number: " + hexNumbers);
+        }
+        value = value << 4 | digit;
+      }
+      values[i] = value;
+    }
+
+    final long startTime = startTime();
+    encode(scratch, values, count);
+    return hash(scratch, count, startTime);
+  }
+
+  /**
+   * Encodes the hexadecimal representation of the given {@code bytes} based on this instance
+   * configuration. The resultant hash is the same as the one produced by
+   * {@link #encodeHex(String)} for the hexadecimal string of the bytes.
+   *
+   * @param bytes the bytes to be encoded
+   * @return the resultant hash of the encoding of {@code bytes}, {@code null} if {@code bytes} is
+   * {@code null}.
+   */
+  public String encodeHexBytes(final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
 
-    // get the associated long value and encode it
-    LongStream values = LongStream.empty();
-    final Matcher matcher = HEX_VALUES_PATTERN.matcher(hex);
-    while (matcher.find()) {
-      final long value = new BigInteger("1" + matcher.group(), 16).longValue();
-      values = LongStream.concat(values, LongStream.of(value));
+    // each chunk of hex digits holds a fixed amount of bytes, prefixed with a marker digit
+    final Scratch scratch = SCRATCH.get();
+    final int chunkBytes = HEX_CHUNK_LENGTH / 2;
+    final int count = (bytes.length + chunkBytes - 1) / chunkBytes;
+    final long[] values = scratch.numbers(count);
+    for (int i = 0; i < count; i++) {
+      final int chunkStart = i * chunkBytes;
+      final int chunkEnd = Math.min(chunkStart + chunkBytes, bytes.length);
+      long value = 1;
+      for (int j = chunkStart; j < chunkEnd; j++) {
+        value = value << 8 | (bytes[j] & 0xff);
+      }
+      values[i] = value;
     }
 
-    return encode(values.toArray());
+    final long startTime = startTime();
+    encode(scratch, values, count);
+    return hash(scratch, count, startTime);
   }
 
   /**
-   * Encodes the given {@code numbers} based on this instance configuration.
+   * Encodes the given {@code uuid} based on this instance configuration. The resultant hash is the
+   * same as the one produced by {@link #encodeHex(String)} for the 32 hex digits of the uuid.
+   *
+   * @param uuid the uuid to be encoded
+   * @return the resultant hash of the encoding of {@code uuid}, {@code null} if {@code uuid} is
+   * {@code null}.
+   */
+  public String encodeUuid(final UUID uuid) {
+    if (uuid == null) {
+      return null;
+    }
+
+    return encode128(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Encodes the 128-bit number composed by the given {@code high} and {@code low} bits based on
+   * this instance configuration. The resultant hash is the same as the one produced by
+   * {@link #encodeHex(String)} for the 32 hex digits of the number.
+   *
+   * @param high the most significant 64 bits of the number
+   * @param low  the least significant 64 bits of the number
+   * @return the resultant hash of the encoding of the number
+   */
+  public String encode128(final long high, final long low) {
+    // split the 32 hex digits in chunks, as encodeHex does
+    final Scratch scratch = SCRATCH.get();
+    final long[] values = scratch.numbers(3);
+    values[0] = 1L << HEX_CHUNK_BITS | high >>> 16;
+    values[1] = 1L << HEX_CHUNK_BITS | (high & 0xffffL) << 32 | low >>> 32;
+    values[2] = 1L << 32 | low & 0xffffffffL;
+
+    final long startTime = startTime();
+    encode(scratch, values, 3);
+    return hash(scratch, 3, startTime);
+  }
+
+  /**
+   * Encodes the given arbitrary-precision {@code numbers} based on this instance configuration.
+   * Numbers that fit in a {@code long} are encoded exactly as {@link #encode(long...)} does.
    *
    * @param numbers the numbers to be encoded
    * @return the resultant hash of the encoding of {@code numbers}, {@code null} if {@code numbers}
    * is {@code null}.
-   * @throws IllegalArgumentException if any of the numbers is not supported
+   * @throws IllegalArgumentException if any of the numbers is negative
    */
-  public String encode(final long... numbers) {
+  public String encodeBig(final BigInteger... numbers) {
     if (numbers == null) {
       return null;
     }
+    if (listener == null) {
+      return encodeBigNumbers(numbers);
+    }
 
-    // copy alphabet
-    final char[] currentAlphabet = Arrays.copyOf(alphabet, alphabet.length);
-
-    // determine the lottery number
-    final long lotteryId = LongStream.range(0, numbers.length)
-        .reduce(0, (state, i) -> {
-          final long number = numbers[(int) i];
-          if (number < 0) {
-            throw new IllegalArgumentException("invalid number: " + number);
-          }
-          return state + number % (i + LOTTERY_MOD);
-        });
-    final char lottery = currentAlphabet[(int) (lotteryId % currentAlphabet.length)];
-
-    // encode each number
-    final StringBuilder global = new StringBuilder();
-    IntStream.range(0, numbers.length)
-        .forEach(idx -> {
-          // derive alphabet
-          deriveNewAlphabet(currentAlphabet, salt, lottery);
-
-          // encode
-          final int initialLength = global.length();
-          translate(numbers[idx], currentAlphabet, global, initialLength);
-
-          // prepend the lottery
-          if (idx == 0) {
-            global.insert(0, lottery);
-          }
-
-          // append the separator, if more numbers are pending encoding
-          if (idx + 1 < numbers.length) {
-            long n = numbers[idx] % (global.charAt(initialLength) + 1);
-            global.append(separators[(int) (n % separators.length)]);
-          }
-        });
+    final long startTime = System.nanoTime();
+    final String hash = encodeBigNumbers(numbers);
+    listener.encoded(numbers.length, hash.length(), System.nanoTime() - startTime);
+    return hash;
+  }
 
-    // add the guards, if there's any space left
-    if (minLength > global.length()) {
-      int guardIdx = (int) ((lotteryId + lottery) % guards.length);
-      global.insert(0, guards[guardIdx]);
-      if (minLength > global.length()) {
-        guardIdx = (int) ((lotteryId + global.charAt(2)) % guards.length);
-        global.append(guards[guardIdx]);
+  private String encodeBigNumbers(final BigInteger[] numbers) {
+
+    // determine the lottery number and an upper bound of the digits of each number
+    final double digitsPerBit = Math.log(2) / Math.log(alphabet.length);
+    long lotteryId = 0;
+    int capacity = 0;
+    int maxBitLength = 0;
+    for (int i = 0; i < numbers.length; i++) {
+      final BigInteger number = numbers[i];
+      if (number.signum() < 0) {
+        throw new IllegalArgumentException("invalid number: " + number);
       }
+      lotteryId += number.mod(BigInteger.valueOf(i + LOTTERY_MOD)).longValue();
+      capacity += (int) (number.bitLength() * digitsPerBit) + 2;
+      maxBitLength = Math.max(maxBitLength, number.bitLength());
     }
 
-    // add the necessary padding
-    int paddingLeft = minLength - global.length();
-    while (paddingLeft > 0) {
-      shuffle(currentAlphabet, Arrays.copyOf(currentAlphabet, currentAlphabet.length));
+    // nothing to encode
+    if (numbers.length == 0) {
+      return "";
+    }
 
-      final int alphabetHalfSize = currentAlphabet.length / 2;
-      final int initialSize = global.length();
-      if (paddingLeft > currentAlphabet.length) {
-        // entire alphabet with the current encoding in the middle of it
-        int offset = alphabetHalfSize + (currentAlphabet.length % 2 == 0 ? 0 : 1);
+    // determine the lottery
+    final Scratch scratch = SCRATCH.get();
+    scratch.fit(alphabet.length);
+    final int lotteryIdx = (int) (lotteryId % alphabet.length);
+    final char lottery = alphabet[lotteryIdx];
+    final char[] currentAlphabet = scratch.alphabet;
+    final BigInteger[] powers = maxBitLength < Long.SIZE ? null :
+        radixPowers((int) (maxBitLength * digitsPerBit) + 1);
+
+    // reserve enough room on both sides of the hash for the guards and padding
+    final int padding = Math.max(minLength, 0);
+    final char[] out = scratch.output(2 * padding + capacity);
+    final int start = padding;
+    int end = start;
 
-        global.insert(0, currentAlphabet, alphabetHalfSize, offset);
-        global.insert(offset + initialSize, currentAlphabet, 0, alphabetHalfSize);
-        // decrease the padding left
-        paddingLeft -= currentAlphabet.length;
+    // encode each number
+    out[end++] = lottery;
+    for (int idx = 0; idx < numbers.length; idx++) {
+      // derive alphabet
+      if (idx == 0) {
+        deriveFirstAlphabet(lotteryIdx, currentAlphabet, scratch.salt);
       } else {
-        // calculate the excess
-        final int excess = currentAlphabet.length + global.length() - minLength;
-        final int secondHalfStartOffset = alphabetHalfSize + Math.floorDiv(excess, 2);
-        final int secondHalfLength = currentAlphabet.length - secondHalfStartOffset;
-        final int firstHalfLength = paddingLeft - secondHalfLength;
-
-        global.insert(0, currentAlphabet, secondHalfStartOffset, secondHalfLength);
-        global.insert(secondHalfLength + initialSize, currentAlphabet, 0, firstHalfLength);
+        deriveNewAlphabet(currentAlphabet, salt, lottery, scratch.salt);
+      }
 
-        paddingLeft = 0;
+      // encode (the first number is seeded by the lottery, which takes its place)
+      final BigInteger number = numbers[idx];
+      final int initialLength = idx == 0 ? start : end;
+      end = number.bitLength() < Long.SIZE ?
+          translate(number.longValue(), currentAlphabet, out, end) :
+          translate(number, currentAlphabet, powers, powers.length - 1, false, out, end);
+
+      // append the separator, if more numbers are pending encoding
+      if (idx + 1 < numbers.length) {
+        long n = number.mod(BigInteger.valueOf(out[initialLength] + 1)).longValue();
+        out[end++] = separators[(int) (n % separators.length)];
       }
     }
 
-    return global.toString();
+    guardAndPad(scratch, start, end, lotteryId, lottery);
+    return scratch.hash();
   }
 
-  //-------------------------
-  // Decode
-  //-------------------------
+  /**
+   * Returns the length of the hash of the given {@code numbers}, as produced by
+   * {@link #encode(long...)}, without encoding them.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the length of the resultant hash, {@code 0} if {@code numbers} is {@code null} or
+   * empty.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public int encodedLength(final long... numbers) {
+    if (numbers == null || numbers.length == 0) {
+      return 0;
+    }
+
+    // the lottery, the digits of each number and the separators between them
+    int coreLength = numbers.length;
+    for (final long number : numbers) {
+      if (number < 0) {
+        throw new IllegalArgumentException("invalid number: " + number);
+      }
+      coreLength += digits(number);
+    }
+
+    // the guards and padding fill the hash up to the minimum length
+    return Math.max(coreLength, minLength);
+  }
 
   /**
-   * Decodes the given {@code hash} into his original hexadecimal representation based on this
-   * instance configuration.
+   * Returns the maximum length of the hash of {@code count} numbers, i.e. the length of the hash
+   * of {@code count} numbers with as many digits as {@link Long#MAX_VALUE}.
    *
-   * @param hash the hash to be decoded
-   * @return the original hexadecimal representation of the hash values with each numeric number
-   * present in the hash, {@code null} if {@code numbers} is {@code null}.
-   * @throws IllegalArgumentException if the hash is invalid.
+   * @param count the amount of numbers to be encoded
+   * @return the maximum length of the resultant hash, {@code 0} if {@code count} is {@code 0}
+   * @throws IllegalArgumentException if the count is negative or its hashes may be longer than
+   *                                  the maximum array length
    */
-  public String decodeHex(final String hash) {
-    if (hash == null) {
-      return null;
+  public int maxEncodedLength(final int count) {
+    final long coreLength = (long) count * (digitPowers.length + 1);
+    if (count < 0 || coreLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("invalid count: " + count);
     }
 
-    final StringBuilder sb = new StringBuilder();
-    Arrays.stream(decode(hash))
-        .mapToObj(Long::toHexString)
-        .forEach(hex -> sb.append(hex, 1, hex.length()));
-    return sb.toString();
+    return count == 0 ? 0 : (int) Math.max(coreLength, minLength);
   }
 
   /**
-   * Decodes the given {@code hash} into his original numeric representation based on this instance
-   * configuration.
+   * Encodes the given {@code numbers} based on this instance configuration.
    *
-   * @param hash the hash to be decoded
-   * @return an array of long values with each numeric number present in the hash, {@code null} if
-   * {@code numbers} is {@code null}.
-   * @throws IllegalArgumentException if the hash is invalid.
+   * @param numbers the numbers to be encoded
+   * @return the resultant hash of the encoding of {@code numbers}, {@code null} if {@code numbers}
+   * is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
    */
-  public long[] decode(final String hash) {
-    if (hash == null) {
+  public String encode(final long... numbers) {
+    if (numbers == null) {
       return null;
     }
 
-    // create a set of the guards
-    final Set<Character> guardsSet = IntStream.range(0, guards.length)
-        .mapToObj(idx -> guards[idx])
-        .collect(Collectors.toSet());
-    // count the total guards used
-    final int[] guardsIdx = IntStream.range(0, hash.length())
-        .filter(idx -> guardsSet.contains(hash.charAt(idx)))
-        .toArray();
-    // get the start/end index base on the guards count
-    final int startIdx, endIdx;
-    if (guardsIdx.length > 0) {
-      startIdx = guardsIdx[0] + 1;
-      endIdx = guardsIdx.length > 1 ? guardsIdx[1] : hash.length();
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    if (numbers.length == 1) {
+      encodeOne(scratch, numbers[0]);
     } else {
-      startIdx = 0;
-      endIdx = hash.length();
+      encode(scratch, numbers, numbers.length);
     }
+    return hash(scratch, numbers.length, startTime);
+  }
 
-    LongStream decoded = LongStream.empty();
-    // parse the hash
-    if (hash.length() > 0) {
-      final char lottery = hash.charAt(startIdx);
-
-      // create the initial accumulation string
-      final int length = hash.length() - guardsIdx.length - 1;
-      StringBuilder block = new StringBuilder(length);
-
-      // create the base salt
-      final char[] decodeSalt = new char[alphabet.length];
-      decodeSalt[0] = lottery;
-      final int saltLength = salt.length >= alphabet.length ? alphabet.length - 1 : salt.length;
-      System.arraycopy(salt, 0, decodeSalt, 1, saltLength);
-      final int saltLeft = alphabet.length - saltLength - 1;
-
-      // copy alphabet
-      final char[] currentAlphabet = Arrays.copyOf(alphabet, alphabet.length);
-
-      for (int i = startIdx + 1; i < endIdx; i++) {
-        if (!separatorsSet.contains(hash.charAt(i))) {
-          block.append(hash.charAt(i));
-          // continue if we have not reached the end, yet
-          if (i < endIdx - 1) {
-            continue;
-          }
-        }
-
-        if (block.length() > 0) {
-          // create the salt
-          if (saltLeft > 0) {
-            System.arraycopy(currentAlphabet, 0, decodeSalt,
-                alphabet.length - saltLeft, saltLeft);
-          }
-
-          // shuffle the alphabet
-          shuffle(currentAlphabet, decodeSalt);
+  /**
+   * Encodes the given {@code number} based on this instance configuration. The resultant hash is
+   * the same as the one produced by {@link #encode(long...)} for the single number, without going
+   * through the handling of multiple numbers.
+   *
+   * @param number the number to be encoded
+   * @return the resultant hash of the encoding of {@code number}
+   * @throws IllegalArgumentException if the number is not supported
+   */
+  public String encodeOne(final long number) {
+    return encode(SCRATCH.get(), number);
+  }
 
-          // prepend the decoded value
-          final long n = translate(block.toString().toCharArray(), currentAlphabet);
-          decoded = LongStream.concat(decoded, LongStream.of(n));
+  /**
+   * Encodes the given {@code numbers} based on this instance configuration, appending the
+   * resultant hash to {@code out} without creating an intermediate string.
+   *
+   * @param out     the destination of the resultant hash
+   * @param numbers the numbers to be encoded
+   * @param <A>     the type of the destination
+   * @return the given {@code out} destination, untouched if {@code numbers} is {@code null}
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   * @throws IOException              if an I/O error occurs while appending to {@code out}
+   */
+  public <A extends Appendable> A encode(final A out, final long... numbers) throws IOException {
+    if (numbers == null) {
+      return out;
+    }
 
-          // create a new block
-          block = new StringBuilder(length);
-        }
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encode(scratch, numbers, numbers.length);
+    final int start = scratch.start;
+    final int length = scratch.end - start;
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(scratch.out, start, length);
+    } else if (out instanceof Writer) {
+      ((Writer) out).write(scratch.out, start, length);
+    } else {
+      for (int i = start; i < start + length; i++) {
+        out.append(scratch.out[i]);
       }
     }
+    encoded(numbers.length, length, startTime);
+    return out;
+  }
 
-    // validate the hash
-    final long[] decodedValue = decoded.toArray();
-    if (!Objects.equals(hash, encode(decodedValue))) {
-      throw new IllegalArgumentException("invalid hash: " + hash);
+  /**
+   * Encodes the given {@code numbers} based on this instance configuration, appending the
+   * resultant hash to {@code out} without creating an intermediate string.
+   *
+   * @param out     the destination of the resultant hash
+   * @param numbers the numbers to be encoded
+   * @return the given {@code out} destination, untouched if {@code numbers} is {@code null}
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public StringBuilder encodeTo(final StringBuilder out, final long... numbers) {
+    if (numbers == null) {
+      return out;
     }
 
-    return decodedValue;
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encode(scratch, numbers, numbers.length);
+    out.append(scratch.out, scratch.start, scratch.end - scratch.start);
+    encoded(numbers.length, scratch.end - scratch.start, startTime);
+    return out;
   }
 
-  // -------------------
-  // Utility functions
-  // -------------------
-
-  private StringBuilder translate(final long n, final char[] alphabet,
-      final StringBuilder sb, final int start) {
-    long input = n;
-    do {
-      // prepend the chosen char
-      sb.insert(start, alphabet[(int) (input % alphabet.length)]);
-
-      // trim the input
-      input = input / alphabet.length;
-    } while (input > 0);
-
-    return sb;
+  /**
+   * Encodes the given {@code number} based on this instance configuration, appending the
+   * resultant hash to {@code out} without creating an intermediate string.
+   *
+   * @param out    the destination of the resultant hash
+   * @param number the number to be encoded
+   * @return the given {@code out} destination
+   * @throws IllegalArgumentException if the number is not supported
+   */
+  public StringBuilder encodeTo(final StringBuilder out, final long number) {
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encodeOne(scratch, number);
+    out.append(scratch.out, scratch.start, scratch.end - scratch.start);
+    encoded(1, scratch.end - scratch.start, startTime);
+    return out;
   }
 
-  private long translate(final char[] hash, final char[] alphabet) {
-    long number = 0;
+  /**
+   * Encodes each one of the given {@code numbers} into its own hash, based on this instance
+   * configuration. The resultant hashes are the same as the ones produced by encoding each number
+   * individually.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hashes, in the same order as {@code numbers}, {@code null} if {@code
+   * numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public String[] encodeEach(final long[] numbers) {
+    if (numbers == null) {
+      return null;
+    }
 
-    final Map<Character, Integer> alphabetMapping = IntStream.range(0, alphabet.length)
-        .mapToObj(idx -> new Object[]{alphabet[idx], idx})
-        .collect(Collectors.groupingBy(arr -> (Character) arr[0],
-            Collectors.mapping(arr -> (Integer) arr[1],
-                Collectors.reducing(null, (a, b) -> a == null ? b : a))));
+    final String[] hashes = new String[numbers.length];
+    encodeEach(numbers, hashes);
+    return hashes;
+  }
 
-    for (int i = 0; i < hash.length; ++i) {
-      number += alphabetMapping.computeIfAbsent(hash[i], k -> {
-        throw new IllegalArgumentException("Invalid alphabet for hash");
-      }) * (long) Math.pow(alphabet.length, hash.length - i - 1);
+  /**
+   * Encodes each one of the given {@code numbers} into its own hash, based on this instance
+   * configuration, and stores the resultant hashes in {@code hashes}, at the same index as the
+   * encoded number.
+   *
+   * @param numbers the numbers to be encoded
+   * @param hashes  the array where the resultant hashes shall be stored
+   * @throws IllegalArgumentException if any of the numbers is not supported or if {@code hashes}
+   *                                  is not big enough to hold every hash
+   */
+  public void encodeEach(final long[] numbers, final String[] hashes) {
+    if (hashes.length < numbers.length) {
+      throw new IllegalArgumentException(String.format("hashes array is too small: %d < %d",
+          hashes.length, numbers.length));
     }
+    validateEach(numbers);
 
-    return number;
+    final Scratch scratch = SCRATCH.get();
+    for (int i = 0; i < numbers.length; i++) {
+      hashes[i] = encode(scratch, numbers[i]);
+    }
   }
 
-  private char[] deriveNewAlphabet(final char[] alphabet, final char[] salt, final char lottery) {
-    // create the new salt
-    final char[] newSalt = new char[alphabet.length];
+  /**
+   * Encodes each one of the given {@code numbers} into its own hash, based on this instance
+   * configuration, and adds the resultant hashes to {@code hashes}, in the same order as {@code
+   * numbers}.
+   *
+   * @param numbers the numbers to be encoded
+   * @param hashes  the collection where the resultant hashes shall be added
+   * @param <C>     the type of the collection
+   * @return the given {@code hashes} collection
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public <C extends Collection<? super String>> C encodeEach(final long[] numbers, final C hashes) {
+    validateEach(numbers);
 
-    // 1. lottery
-    newSalt[0] = lottery;
-    int spaceLeft = newSalt.length - 1;
-    int offset = 1;
-    // 2. salt
-    if (salt.length > 0 && spaceLeft > 0) {
-      int length = salt.length > spaceLeft ? spaceLeft : salt.length;
-      System.arraycopy(salt, 0, newSalt, offset, length);
-      spaceLeft -= length;
-      offset += length;
-    }
-    // 3. alphabet
-    if (spaceLeft > 0) {
-      System.arraycopy(alphabet, 0, newSalt, offset, spaceLeft);
+    final Scratch scratch = SCRATCH.get();
+    for (final long number : numbers) {
+      hashes.add(encode(scratch, number));
     }
+    return hashes;
+  }
 
-    // shuffle
-    return shuffle(alphabet, newSalt);
+  /**
+   * Encodes each one of the given {@code numbers} into its own hash, based on this instance
+   * configuration, splitting the work across the {@link ForkJoinPool#commonPool() common pool}.
+   * The resultant hashes are the same, and in the same order, as the ones produced by
+   * {@link #encodeEach(long[])}.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hashes, in the same order as {@code numbers}, {@code null} if {@code
+   * numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public String[] encodeEachParallel(final long[] numbers) {
+    return encodeEachParallel(numbers, ForkJoinPool.commonPool());
   }
 
-  private char[] validateAndFilterAlphabet(final char[] alphabet, final char[] separators) {
-    // validate size
-    if (alphabet.length < MIN_ALPHABET_LENGTH) {
-      throw new IllegalArgumentException(String.format("alphabet must contain at least %d unique " +
-          "characters: %d", MIN_ALPHABET_LENGTH, alphabet.length));
+  /**
+   * Encodes each one of the given {@code numbers} into its own hash, based on this instance
+   * configuration, splitting the work across the given {@code pool}. The resultant hashes are the
+   * same, and in the same order, as the ones produced by {@link #encodeEach(long[])}.
+   *
+   * @param numbers the numbers to be encoded
+   * @param pool    the pool where the work shall be executed
+   * @return the resultant hashes, in the same order as {@code numbers}, {@code null} if {@code
+   * numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  public String[] encodeEachParallel(final long[] numbers, final ForkJoinPool pool) {
+    if (numbers == null) {
+      return null;
     }
+    validateEach(numbers);
 
-    final Set<Character> seen = new LinkedHashSet<>(alphabet.length);
-    final Set<Character> invalid = IntStream.range(0, separators.length)
-        .mapToObj(idx -> separators[idx])
-        .collect(Collectors.toSet());
-
-    // add to seen set (without duplicates)
-    IntStream.range(0, alphabet.length)
-        .forEach(i -> {
-          if (alphabet[i] == ' ') {
-            throw new IllegalArgumentException(String.format("alphabet must not contain spaces: " +
-                "index %d", i));
-          }
-          final Character c = alphabet[i];
-          if (!invalid.contains(c)) {
-            seen.add(c);
-          }
-        });
-
-    // create a new alphabet without the duplicates
-    final char[] uniqueAlphabet = new char[seen.size()];
-    int idx = 0;
-    for (char c : seen) {
-      uniqueAlphabet[idx++] = c;
-    }
-    return uniqueAlphabet;
+    final String[] hashes = new String[numbers.length];
+    parallel(pool, numbers.length, (from, to) -> {
+      final Scratch scratch = SCRATCH.get();
+      for (int i = from; i < to; i++) {
+        hashes[i] = encode(scratch, numbers[i]);
+      }
+    });
+    return hashes;
   }
 
-  private char[] filterSeparators(final char[] separators, final char[] alphabet) {
-    final Set<Character> valid = IntStream.range(0, alphabet.length)
-        .mapToObj(idx -> alphabet[idx])
-        .collect(Collectors.toSet());
+  // encodes a single number with the given scratch, notifying the listener
+  private String encode(final Scratch scratch, final long number) {
+    final long startTime = startTime();
+    encodeOne(scratch, number);
+    return hash(scratch, 1, startTime);
+  }
 
-    return IntStream.range(0, separators.length)
-        .mapToObj(idx -> (separators[idx]))
-        .filter(valid::contains)
-        // ugly way to convert back to char[]
-        .map(c -> Character.toString(c))
-        .collect(Collectors.joining())
-        .toCharArray();
+  // encodes a single number into the scratch output, between its start and end (there are
+  // neither separators nor alphabets other than the first one)
+  private void encodeOne(final Scratch scratch, final long number) {
+    if (number < 0) {
+      throw new IllegalArgumentException("invalid number: " + number);
+    }
+    scratch.fit(alphabet.length);
+
+    // determine the lottery
+    final long lotteryId = number % LOTTERY_MOD;
+    final int lotteryIdx = (int) (lotteryId % alphabet.length);
+    final char lottery = alphabet[lotteryIdx];
+
+    // place the lottery and the digits at their final offset
+    final int coreLength = 1 + digits(number);
+    final char[] out = scratch.output(Math.max(coreLength, minLength));
+    final int start = leftPadding(coreLength);
+    out[start] = lottery;
+    deriveFirstAlphabet(lotteryIdx, scratch.alphabet, scratch.salt);
+    final int end = translate(number, scratch.alphabet, out, start + 1);
+
+    guardAndPad(scratch, start, end, lotteryId, lottery);
   }
 
-  private char[] shuffle(final char[] alphabet, final char[] salt) {
+  // encodes the first count numbers into the scratch output, between its start and end
+  private void encode(final Scratch scratch, final long[] numbers, final int count) {
+    scratch.fit(alphabet.length);
+
+    // determine the lottery number and the length of the hash core (the lottery, the digits and
+    // the separators between them)
+    long lotteryId = 0;
+    int coreLength = count;
+    for (int i = 0; i < count; i++) {
+      final long number = numbers[i];
+      if (number < 0) {
+        throw new IllegalArgumentException("invalid number: " + number);
+      }
+      lotteryId += number % (i + LOTTERY_MOD);
+      coreLength += digits(number);
+    }
+
+    // nothing to encode
+    if (count == 0) {
+      scratch.start = scratch.end = 0;
+      return;
+    }
+
+    // determine the lottery
+    final int lotteryIdx = (int) (lotteryId % alphabet.length);
+    final char lottery = alphabet[lotteryIdx];
+    final char[] currentAlphabet = scratch.alphabet;
+
+    // place the core at its final offset, past the leading guard and padding
+    final char[] out = scratch.output(Math.max(coreLength, minLength));
+    final int start = leftPadding(coreLength);
+    int end = start;
+
+    // encode each number
+    out[end++] = lottery;
+    for (int idx = 0; idx < count; idx++) {
+      // derive alphabet
+      if (idx == 0) {
+        deriveFirstAlphabet(lotteryIdx, currentAlphabet, scratch.salt);
+      } else {
+        deriveNewAlphabet(currentAlphabet, salt, lottery, scratch.salt);
+      }
+
+      // encode (the first number is seeded by the lottery, which takes its place)
+      final int initialLength = idx == 0 ? start : end;
+      end = translate(numbers[idx], currentAlphabet, out, end);
+
+      // append the separator, if more numbers are pending encoding
+      if (idx + 1 < count) {
+        long n = numbers[idx] % (out[initialLength] + 1);
+        out[end++] = separators[(int) (n % separators.length)];
+      }
+    }
+
+    guardAndPad(scratch, start, end, lotteryId, lottery);
+  }
+
+  private void guardAndPad(final Scratch scratch, final int hashStart, final int hashEnd,
+      final long lotteryId, final char lottery) {
+    final char[] out = scratch.out;
+    final char[] currentAlphabet = scratch.alphabet;
+    int start = hashStart;
+    int end = hashEnd;
+
+    // add the guards, if there's any space left
+    if (minLength > end - start) {
+      int guardIdx = (int) ((lotteryId + lottery) % guards.length);
+      out[--start] = guards[guardIdx];
+      if (minLength > end - start) {
+        guardIdx = (int) ((lotteryId + out[start + 2]) % guards.length);
+        out[end++] = guards[guardIdx];
+      }
+    }
+
+    // add the necessary padding
+    int paddingLeft = minLength - (end - start);
+    while (paddingLeft > 0) {
+      System.arraycopy(currentAlphabet, 0, scratch.salt, 0, currentAlphabet.length);
+      shuffle(currentAlphabet, scratch.salt);
+
+      final int alphabetHalfSize = currentAlphabet.length / 2;
+      if (paddingLeft > currentAlphabet.length) {
+        // entire alphabet with the current encoding in the middle of it
+        final int secondHalfLength = currentAlphabet.length - alphabetHalfSize;
+        start -= secondHalfLength;
+        System.arraycopy(currentAlphabet, alphabetHalfSize, out, start, secondHalfLength);
+        System.arraycopy(currentAlphabet, 0, out, end, alphabetHalfSize);
+        end += alphabetHalfSize;
+        // decrease the padding left
+        paddingLeft -= currentAlphabet.length;
+      } else {
+        // calculate the excess
+        final int excess = currentAlphabet.length + (end - start) - minLength;
+        final int secondHalfStartOffset = alphabetHalfSize + Math.floorDiv(excess, 2);
+        final int secondHalfLength = currentAlphabet.length - secondHalfStartOffset;
+        final int firstHalfLength = paddingLeft - secondHalfLength;
+
+        start -= secondHalfLength;
+        System.arraycopy(currentAlphabet, secondHalfStartOffset, out, start, secondHalfLength);
+        System.arraycopy(currentAlphabet, 0, out, end, firstHalfLength);
+        end += firstHalfLength;
+
+        paddingLeft = 0;
+      }
+    }
+
+    scratch.start = start;
+    scratch.end = end;
+  }
+
+  /**
+   * Encodes the given {@code numbers} into a new array of ASCII bytes.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hash
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   */
+  byte[] encodeAscii(final long[] numbers) {
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encode(scratch, numbers, numbers.length);
+
+    final byte[] bytes = new byte[scratch.end - scratch.start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) scratch.out[scratch.start + i];
+    }
+    encoded(numbers.length, bytes.length, startTime);
+    return bytes;
+  }
+
+  /**
+   * Encodes the given {@code numbers} into the given {@code dst} array as ASCII bytes, starting
+   * at {@code offset}.
+   *
+   * @param dst     the destination of the resultant hash
+   * @param offset  the index of {@code dst} where the hash shall be written
+   * @param numbers the numbers to be encoded
+   * @return the amount of bytes written
+   * @throws IllegalArgumentException  if any of the numbers is not supported
+   * @throws IndexOutOfBoundsException if the hash does not fit in {@code dst}
+   */
+  int encodeAscii(final byte[] dst, final int offset, final long[] numbers) {
+    // check whether the hash fits before encoding it
+    final int length = encodedLength(numbers);
+    if (offset < 0 || length > dst.length - offset) {
+      throw new IndexOutOfBoundsException(String.format("hash with length %d does not fit at " +
+          "offset %d of array with length %d", length, offset, dst.length));
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encode(scratch, numbers, numbers.length);
+    for (int i = 0; i < length; i++) {
+      dst[offset + i] = (byte) scratch.out[scratch.start + i];
+    }
+    encoded(numbers.length, length, startTime);
+    return length;
+  }
+
+  /**
+   * Encodes the given {@code numbers} into the given {@code dst} buffer as ASCII bytes, starting
+   * at its current position, which is advanced past the hash.
+   *
+   * @param dst     the destination of the resultant hash
+   * @param numbers the numbers to be encoded
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   * @throws BufferOverflowException  if the hash does not fit in the remaining bytes of {@code dst}
+   */
+  void encodeAscii(final ByteBuffer dst, final long[] numbers) {
+    // check whether the hash fits before encoding it
+    final int length = encodedLength(numbers);
+    if (dst.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    encode(scratch, numbers, numbers.length);
+    final int position = dst.position();
+    for (int i = 0; i < length; i++) {
+      dst.put(position + i, (byte) scratch.out[scratch.start + i]);
+    }
+    dst.position(position + length);
+    encoded(numbers.length, length, startTime);
+  }
+
+  /**
+   * Checks whether every character which is part of a hash (alphabet, separators and guards) is
+   * ASCII.
+   *
+   * @return {@code true} if hashes are pure ASCII, {@code false} otherwise
+   */
+  boolean isAscii() {
+    return isAscii(alphabet) && isAscii(separators) && isAscii(guards);
+  }
+
+  //-------------------------
+  // Decode
+  //-------------------------
+
+  /**
+   * Decodes the given {@code hash} into his original hexadecimal representation based on this
+   * instance configuration.
+   *
+   * @param hash the hash to be decoded
+   * @return the original hexadecimal representation of the hash values with each numeric number
+   * present in the hash, {@code null} if {@code numbers} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid.
+   */
+  public String decodeHex(final String hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    final int count = decodeHexValues(scratch, hash, startTime);
+
+    // format each value without its marker digit
+    int length = 0;
+    for (int i = 0; i < count; i++) {
+      length += hexDigits(scratch.numbers[i]);
+    }
+    final char[] out = scratch.output(length);
+    int idx = 0;
+    for (int i = 0; i < count; i++) {
+      final long value = scratch.numbers[i];
+      for (int shift = (hexDigits(value) - 1) * 4; shift >= 0; shift -= 4) {
+        out[idx++] = HEX_DIGITS[(int) (value >>> shift) & 0xf];
+      }
+    }
+    final String hex = new String(out, 0, length);
+    decoded(hash.length(), count, startTime);
+    return hex;
+  }
+
+  /**
+   * Decodes the given {@code hash} into the bytes whose hexadecimal representation was encoded,
+   * based on this instance configuration.
+   *
+   * @param hash the hash to be decoded
+   * @return the original bytes of the hash, {@code null} if {@code hash} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid or if its hexadecimal representation
+   *                                  does not amount to whole bytes.
+   */
+  public byte[] decodeHexToBytes(final String hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    final int count = decodeHexValues(scratch, hash, startTime);
+
+    // each value must hold whole bytes besides its marker digit
+    int length = 0;
+    for (int i = 0; i < count; i++) {
+      final int digits = hexDigits(scratch.numbers[i]);
+      if (digits % 2 != 0) {
+        decoded(hash.length(), INVALID_HASH, startTime);
+        throw new IllegalArgumentException("hash does not hold whole bytes: " + hash);
+      }
+      length += digits / 2;
+    }
+    final byte[] bytes = new byte[length];
+    int idx = 0;
+    for (int i = 0; i < count; i++) {
+      final long value = scratch.numbers[i];
+      for (int shift = (hexDigits(value) / 2 - 1) * 8; shift >= 0; shift -= 8) {
+        bytes[idx++] = (byte) (value >>> shift);
+      }
+    }
+    decoded(hash.length(), count, startTime);
+    return bytes;
+  }
+
+  /**
+   * Decodes the given {@code hash} into the uuid it holds, based on this instance configuration.
+   *
+   * @param hash the hash to be decoded
+   * @return the original uuid of the hash, {@code null} if {@code hash} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid or does not hold an uuid
+   * @see #encodeUuid(UUID)
+   */
+  public UUID decodeUuid(final CharSequence hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    // the hash must hold the chunks of exactly 32 hex digits
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    final int count = decode(scratch, hash, 0, hash.length());
+    final long[] values = scratch.numbers;
+    if (count != 3 || values[0] >>> HEX_CHUNK_BITS != 1 || values[1] >>> HEX_CHUNK_BITS != 1 ||
+        values[2] >>> 32 != 1) {
+      final IllegalArgumentException e = invalidHash(count, hash, 0, hash.length());
+      decoded(hash.length(), INVALID_HASH, startTime);
+      throw e;
+    }
+
+    final long high = (values[0] & ~(1L << HEX_CHUNK_BITS)) << 16 | values[1] >>> 32 & 0xffffL;
+    final long low = values[1] << 32 | values[2] & 0xffffffffL;
+    decoded(hash.length(), count, startTime);
+    return new UUID(high, low);
+  }
+
+  /**
+   * Decodes the given {@code hash} into the arbitrary-precision numbers it holds, based on this
+   * instance configuration.
+   *
+   * @param hash the hash to be decoded
+   * @return the original numbers of the hash, {@code null} if {@code hash} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid
+   * @see #encodeBig(BigInteger...)
+   */
+  public BigInteger[] decodeBig(final CharSequence hash) {
+    if (hash == null) {
+      return null;
+    }
+    if (listener == null) {
+      return decodeBigNumbers(hash);
+    }
+
+    final long startTime = System.nanoTime();
+    try {
+      final BigInteger[] numbers = decodeBigNumbers(hash);
+      listener.decoded(hash.length(), numbers.length, System.nanoTime() - startTime);
+      return numbers;
+    } catch (final IllegalArgumentException e) {
+      listener.rejected(hash.length(), System.nanoTime() - startTime);
+      throw e;
+    }
+  }
+
+  private BigInteger[] decodeBigNumbers(final CharSequence hash) {
+
+    // an empty hash holds no numbers
+    final int hashLength = hash.length();
+    if (hashLength == 0) {
+      return new BigInteger[0];
+    }
+
+    // locate the guards surrounding the blocks of the hash
+    final Scratch scratch = SCRATCH.get();
+    scratch.fit(alphabet.length);
+    final int guardsCount = locateBlocks(scratch, hash, 0, hashLength);
+    if (guardsCount < 0) {
+      throw invalidHash(guardsCount, hash, 0, hashLength);
+    }
+    final int startIdx = scratch.blocksStart;
+    final int endIdx = scratch.blocksEnd;
+
+    // the lottery must be part of the alphabet
+    final char lottery = hash.charAt(startIdx);
+    final int lotteryIdx = alphabetIndex(lottery);
+    if (lotteryIdx < 0) {
+      throw invalidHash(INVALID_HASH, hash, 0, hashLength);
+    }
+
+    // parse the hash
+    final char[] currentAlphabet = scratch.alphabet;
+    final int[] positions = scratch.positions;
+    final BigInteger[] powers = radixPowers(endIdx - startIdx);
+    final List<BigInteger> numbers = new ArrayList<>();
+    long lotteryId = 0;
+    int blockStart = startIdx + 1;
+    for (int i = blockStart; i <= endIdx; i++) {
+      // continue if we have not reached the end of the block, yet
+      if (i < endIdx && charClasses.classOf(hash.charAt(i)) != CharClasses.SEPARATOR) {
+        continue;
+      }
+
+      // every number is encoded with at least one character, which must not be a leading zero
+      if (i == blockStart) {
+        throw invalidHash(INVALID_HASH, hash, 0, hashLength);
+      }
+      if (numbers.isEmpty()) {
+        deriveFirstAlphabet(lotteryIdx, currentAlphabet, scratch.salt);
+      } else {
+        deriveNewAlphabet(currentAlphabet, salt, lottery, scratch.salt);
+      }
+      if (i - blockStart > 1 && hash.charAt(blockStart) == currentAlphabet[0]) {
+        throw invalidHash(INVALID_HASH, hash, 0, hashLength);
+      }
+
+      // decode the value
+      for (int p = 0; p < currentAlphabet.length; p++) {
+        positions[alphabetIndex(currentAlphabet[p])] = p;
+      }
+      final BigInteger n = translate(hash, blockStart, i, positions, powers);
+
+      // validate the separator, which is chosen by the value and its first character
+      if (i < endIdx) {
+        final long c = numbers.isEmpty() ? lottery : hash.charAt(blockStart);
+        final long separator = n.mod(BigInteger.valueOf(c + 1)).longValue();
+        if (hash.charAt(i) != separators[(int) (separator % separators.length)]) {
+          throw invalidHash(INVALID_HASH, hash, 0, hashLength);
+        }
+      }
+
+      // append the decoded value
+      lotteryId += n.mod(BigInteger.valueOf(numbers.size() + LOTTERY_MOD)).longValue();
+      numbers.add(n);
+
+      // start a new block
+      blockStart = i + 1;
+    }
+
+    // validate the lottery, guards and padding chosen by the decoded values
+    if (lottery != alphabet[(int) (lotteryId % alphabet.length)] ||
+        !validGuards(hash, startIdx, endIdx, guardsCount, lotteryId, lottery) ||
+        (guardsCount == 2 && !validPadding(hash, 0, hashLength, startIdx - 1, endIdx + 1,
+            scratch))) {
+      throw invalidHash(INVALID_HASH, hash, 0, hashLength);
+    }
+
+    return numbers.toArray(new BigInteger[numbers.size()]);
+  }
+
+  private int decodeHexValues(final Scratch scratch, final String hash, final long startTime) {
+    final int count = decode(scratch, hash, 0, hash.length());
+    if (count < 0) {
+      final IllegalArgumentException e = invalidHash(count, hash, 0, hash.length());
+      decoded(hash.length(), count, startTime);
+      throw e;
+    }
+    return count;
+  }
+
+  // the amount of hex digits of the value, excluding its leading marker digit
+  private static int hexDigits(final long value) {
+    return (Long.SIZE - Long.numberOfLeadingZeros(value) - 1) / 4;
+  }
+
+  /**
+   * Decodes the given {@code hash} into his original numeric representation based on this instance
+   * configuration.
+   *
+   * @param hash the hash to be decoded
+   * @return an array of long values with each numeric number present in the hash, {@code null} if
+   * {@code numbers} is {@code null}.
+   * @throws IllegalArgumentException if the hash is invalid.
+   */
+  public long[] decode(final String hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    return decode(hash, 0, hash.length());
+  }
+
+  /**
+   * Decodes the hash contained in the {@code [start, end)} range of the given {@code src} into his
+   * original numeric representation based on this instance configuration, without copying it.
+   *
+   * @param src   the sequence which contains the hash to be decoded
+   * @param start the index of the first character of the hash
+   * @param end   the index after the last character of the hash
+   * @return an array of long values with each numeric number present in the hash
+   * @throws IllegalArgumentException  if the hash is invalid.
+   * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code src}
+   */
+  public long[] decode(final CharSequence src, final int start, final int end) {
+    checkRange(src, start, end);
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    final int count = decode(scratch, src, start, end);
+    if (count < 0) {
+      // describe the hash before the listener gets the chance to reuse its source
+      final IllegalArgumentException e = invalidHash(count, src, start, end);
+      decoded(end - start, count, startTime);
+      throw e;
+    }
+
+    final long[] numbers = Arrays.copyOf(scratch.numbers, count);
+    decoded(end - start, count, startTime);
+    return numbers;
+  }
+
+  /**
+   * Decodes the hash contained in the {@code [start, end)} range of the given {@code src} into the
+   * single number it holds, based on this instance configuration, without copying it.
+   *
+   * @param src   the sequence which contains the hash to be decoded
+   * @param start the index of the first character of the hash
+   * @param end   the index after the last character of the hash
+   * @return the number present in the hash
+   * @throws IllegalArgumentException  if the hash is invalid or does not hold exactly one number
+   * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code src}
+   */
+  public long decodeOne(final CharSequence src, final int start, final int end) {
+    checkRange(src, start, end);
+
+    final long startTime = startTime();
+    final long number = decodeOne(SCRATCH.get(), src, start, end);
+    if (number < 0) {
+      // describe the hash before the listener gets the chance to reuse its source
+      final IllegalArgumentException e = invalidHash((int) number, src, start, end);
+      decodedOne(end - start, number, startTime);
+      throw e;
+    }
+
+    decodedOne(end - start, number, startTime);
+    return number;
+  }
+
+  /**
+   * Decodes the given {@code hash} into the single number it holds, based on this instance
+   * configuration, without going through the handling of multiple numbers.
+   *
+   * @param hash the hash to be decoded
+   * @return the number present in the hash
+   * @throws IllegalArgumentException if the hash is invalid or does not hold exactly one number
+   * @see #encodeOne(long)
+   */
+  public long decodeOne(final CharSequence hash) {
+    return decodeOne(hash, 0, hash.length());
+  }
+
+  /**
+   * Decodes the given {@code hash} into his original numeric representation based on this instance
+   * configuration, without throwing if the hash is invalid.
+   *
+   * @param hash the hash to be decoded
+   * @return an array of long values with each numeric number present in the hash, {@code null} if
+   * {@code hash} is {@code null} or invalid.
+   */
+  public long[] tryDecode(final CharSequence hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    final long startTime = startTime();
+    final int count = decode(scratch, hash, 0, hash.length());
+    final long[] numbers = count < 0 ? null : Arrays.copyOf(scratch.numbers, count);
+    decoded(hash.length(), count, startTime);
+    return numbers;
+  }
+
+  /**
+   * Decodes the given {@code hash} into the single number it holds, based on this instance
+   * configuration, without throwing if the hash is invalid.
+   *
+   * @param hash the hash to be decoded
+   * @return the number present in the hash, empty if {@code hash} is {@code null}, invalid or
+   * does not hold exactly one number.
+   */
+  public OptionalLong tryDecodeOne(final CharSequence hash) {
+    if (hash == null) {
+      return OptionalLong.empty();
+    }
+
+    final long startTime = startTime();
+    final long number = decodeOne(SCRATCH.get(), hash, 0, hash.length());
+    decodedOne(hash.length(), number, startTime);
+    return number < 0 ? OptionalLong.empty() : OptionalLong.of(number);
+  }
+
+  /**
+   * Decodes each one of the given {@code hashes}, which are expected to hold a single number, based
+   * on this instance configuration. Hashes which are {@code null}, invalid or do not hold exactly
+   * one number are flagged in {@code invalid} and decoded as {@code -1}, instead of failing the
+   * whole batch.
+   *
+   * @param hashes  the hashes to be decoded
+   * @param invalid the set where the indexes of the invalid hashes shall be flagged
+   * @return the decoded numbers, in the same order as {@code hashes}, {@code null} if {@code
+   * hashes} is {@code null}.
+   */
+  public long[] decodeEach(final CharSequence[] hashes, final BitSet invalid) {
+    if (hashes == null) {
+      return null;
+    }
+
+    final long[] numbers = new long[hashes.length];
+    decodeEach(hashes, numbers, invalid);
+    return numbers;
+  }
+
+  /**
+   * Decodes each one of the given {@code hashes}, which are expected to hold a single number, based
+   * on this instance configuration, and stores the decoded numbers in {@code numbers}, at the same
+   * index as the decoded hash. Hashes which are {@code null}, invalid or do not hold exactly one
+   * number are flagged in {@code invalid} and decoded as {@code -1}, instead of failing the whole
+   * batch.
+   *
+   * @param hashes  the hashes to be decoded
+   * @param numbers the array where the decoded numbers shall be stored
+   * @param invalid the set where the indexes of the invalid hashes shall be flagged
+   * @return the amount of invalid hashes
+   * @throws IllegalArgumentException if {@code numbers} is not big enough to hold every number
+   */
+  public int decodeEach(final CharSequence[] hashes, final long[] numbers, final BitSet invalid) {
+    if (numbers.length < hashes.length) {
+      throw new IllegalArgumentException(String.format("numbers array is too small: %d < %d",
+          numbers.length, hashes.length));
+    }
+
+    final Scratch scratch = SCRATCH.get();
+    int invalidCount = 0;
+    for (int i = 0; i < hashes.length; i++) {
+      final CharSequence hash = hashes[i];
+      final long number = hash == null ? INVALID_HASH : decodeOne(scratch, hash);
+      if (number < 0) {
+        numbers[i] = -1;
+        invalid.set(i);
+        invalidCount++;
+      } else {
+        numbers[i] = number;
+      }
+    }
+    return invalidCount;
+  }
+
+  /**
+   * Decodes each one of the given {@code hashes}, which are expected to hold a single number, based
+   * on this instance configuration, splitting the work across the {@link ForkJoinPool#commonPool()
+   * common pool}. The outcome is the same as the one of
+   * {@link #decodeEach(CharSequence[], BitSet)}.
+   *
+   * @param hashes  the hashes to be decoded
+   * @param invalid the set where the indexes of the invalid hashes shall be flagged
+   * @return the decoded numbers, in the same order as {@code hashes}, {@code null} if {@code
+   * hashes} is {@code null}.
+   */
+  public long[] decodeEachParallel(final CharSequence[] hashes, final BitSet invalid) {
+    return decodeEachParallel(hashes, invalid, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Decodes each one of the given {@code hashes}, which are expected to hold a single number, based
+   * on this instance configuration, splitting the work across the given {@code pool}. The outcome
+   * is the same as the one of {@link #decodeEach(CharSequence[], BitSet)}.
+   *
+   * @param hashes  the hashes to be decoded
+   * @param invalid the set where the indexes of the invalid hashes shall be flagged
+   * @param pool    the pool where the work shall be executed
+   * @return the decoded numbers, in the same order as {@code hashes}, {@code null} if {@code
+   * hashes} is {@code null}.
+   */
+  public long[] decodeEachParallel(final CharSequence[] hashes, final BitSet invalid,
+      final ForkJoinPool pool) {
+    if (hashes == null) {
+      return null;
+    }
+
+    final long[] numbers = new long[hashes.length];
+    parallel(pool, hashes.length, (from, to) -> {
+      final Scratch scratch = SCRATCH.get();
+      for (int i = from; i < to; i++) {
+        final CharSequence hash = hashes[i];
+        final long number = hash == null ? INVALID_HASH : decodeOne(scratch, hash);
+        numbers[i] = number < 0 ? -1 : number;
+      }
+    });
+
+    // flag the invalid hashes afterwards, given that the set is not thread-safe
+    for (int i = 0; i < numbers.length; i++) {
+      if (numbers[i] < 0) {
+        invalid.set(i);
+      }
+    }
+    return numbers;
+  }
+
+  /**
+   * Checks whether the given {@code hash} is valid for this instance configuration, i.e. if it
+   * could have been produced by encoding any numbers.
+   *
+   * @param hash the hash to be checked
+   * @return {@code true} if the hash is valid, {@code false} otherwise (or if it is {@code null})
+   */
+  public boolean isValid(final CharSequence hash) {
+    if (hash == null) {
+      return false;
+    }
+
+    final long startTime = startTime();
+    final int count = decode(SCRATCH.get(), hash, 0, hash.length());
+    decoded(hash.length(), count, startTime);
+    return count >= 0;
+  }
+
+  // decodes the [offset, end) range into the scratch numbers, returning their amount or a
+  // negative outcome, failing on the cheapest checks before shuffling any alphabet
+  private int decode(final Scratch scratch, final CharSequence hash, final int offset,
+      final int end) {
+    // an empty hash holds no numbers
+    if (offset == end) {
+      return 0;
+    }
+
+    // locate the guards surrounding the blocks of the hash
+    scratch.fit(alphabet.length);
+    final int guardsCount = locateBlocks(scratch, hash, offset, end);
+    if (guardsCount < 0) {
+      return guardsCount;
+    }
+    final int startIdx = scratch.blocksStart;
+    final int endIdx = scratch.blocksEnd;
+
+    // parse the hash
+    final char lottery = hash.charAt(startIdx);
+
+    // create the base salt
+    final char[] decodeSalt = scratch.salt;
+    decodeSalt[0] = lottery;
+    final int saltLength = salt.length >= alphabet.length ? alphabet.length - 1 : salt.length;
+    System.arraycopy(salt, 0, decodeSalt, 1, saltLength);
+    final int saltLeft = alphabet.length - saltLength - 1;
+
+    // copy alphabet
+    final char[] currentAlphabet = scratch.alphabet;
+    System.arraycopy(alphabet, 0, currentAlphabet, 0, alphabet.length);
+
+    // lookup the precomputed alphabet of the first block, if available
+    int lotteryIdx = lotteryAlphabets == null ? -1 : alphabetIndex(lottery);
+
+    long lotteryId = 0;
+    int count = 0;
+    int blockStart = startIdx + 1;
+    for (int i = blockStart; i <= endIdx; i++) {
+      // continue if we have not reached the end of the block, yet
+      if (i < endIdx && charClasses.classOf(hash.charAt(i)) != CharClasses.SEPARATOR) {
+        continue;
+      }
+
+      // every number is encoded with at least one character
+      if (i == blockStart) {
+        return INVALID_HASH;
+      }
+
+      if (lotteryIdx >= 0) {
+        // use the precomputed alphabet of the lottery
+        System.arraycopy(lotteryAlphabets[lotteryIdx], 0, currentAlphabet, 0, alphabet.length);
+        lotteryIdx = -1;
+      } else {
+        // create the salt
+        if (saltLeft > 0) {
+          System.arraycopy(currentAlphabet, 0, decodeSalt, alphabet.length - saltLeft, saltLeft);
+        }
+
+        // shuffle the alphabet
+        shuffle(currentAlphabet, decodeSalt);
+      }
+
+      // decode the value, which must not have leading zeros
+      final long n = translate(hash, blockStart, i, currentAlphabet, scratch.positions);
+      if (n < 0 || (i - blockStart > 1 && hash.charAt(blockStart) == currentAlphabet[0])) {
+        return INVALID_HASH;
+      }
+
+      // validate the separator, which is chosen by the value and its first character
+      if (i < endIdx) {
+        final long c = count == 0 ? lottery : hash.charAt(blockStart);
+        if (hash.charAt(i) != separators[(int) (n % (c + 1) % separators.length)]) {
+          return INVALID_HASH;
+        }
+      }
+
+      // append the decoded value
+      lotteryId += n % (count + LOTTERY_MOD);
+      scratch.numbers(count + 1)[count++] = n;
+
+      // start a new block
+      blockStart = i + 1;
+    }
+
+    // validate the lottery, guards and padding chosen by the decoded values
+    if (lottery != alphabet[(int) (lotteryId % alphabet.length)] ||
+        !validGuards(hash, startIdx, endIdx, guardsCount, lotteryId, lottery) ||
+        (guardsCount == 2 && !validPadding(hash, offset, end, startIdx - 1, endIdx + 1, scratch))) {
+      return INVALID_HASH;
+    }
+
+    return count;
+  }
+
+  // decodes a hash of a single number with the given scratch, notifying the listener
+  private long decodeOne(final Scratch scratch, final CharSequence hash) {
+    final long startTime = startTime();
+    final long number = decodeOne(scratch, hash, 0, hash.length());
+    decodedOne(hash.length(), number, startTime);
+    return number;
+  }
+
+  // decodes the [offset, end) range as a single number, negative if invalid or not exactly one
+  private long decodeOne(final Scratch scratch, final CharSequence hash, final int offset,
+      final int end) {
+    // an empty hash holds no numbers
+    if (offset == end) {
+      return INVALID_HASH;
+    }
+
+    // locate the guards surrounding the single block of the hash
+    scratch.fit(alphabet.length);
+    final int guardsCount = locateBlocks(scratch, hash, offset, end);
+    if (guardsCount < 0) {
+      return guardsCount;
+    }
+    final int startIdx = scratch.blocksStart;
+    final int endIdx = scratch.blocksEnd;
+    final char lottery = hash.charAt(startIdx);
+    final int lotteryIdx = alphabetIndex(lottery);
+    if (lotteryIdx < 0 || startIdx + 1 == endIdx) {
+      return INVALID_HASH;
+    }
+
+    // decode the value, which must not have leading zeros (separators fail the translation)
+    final char[] currentAlphabet = scratch.alphabet;
+    deriveFirstAlphabet(lotteryIdx, currentAlphabet, scratch.salt);
+    final long n = translate(hash, startIdx + 1, endIdx, currentAlphabet, scratch.positions);
+    if (n < 0 || (endIdx - startIdx > 2 && hash.charAt(startIdx + 1) == currentAlphabet[0])) {
+      return INVALID_HASH;
+    }
+
+    // validate the lottery, guards and padding chosen by the decoded value
+    final long lotteryId = n % LOTTERY_MOD;
+    if (lottery != alphabet[(int) (lotteryId % alphabet.length)] ||
+        !validGuards(hash, startIdx, endIdx, guardsCount, lotteryId, lottery) ||
+        (guardsCount == 2 && !validPadding(hash, offset, end, startIdx - 1, endIdx + 1, scratch))) {
+      return INVALID_HASH;
+    }
+
+    return n;
+  }
+
+  //-------------------------
+  // Streams
+  //-------------------------
+
+  /**
+   * Returns a function which encodes a single number based on this instance configuration, as
+   * {@link #encode(long...)} does, without wrapping it in an array. Mapping a {@link LongStream}
+   * with it, e.g. {@code numbers.mapToObj(hashids.encoder()).toArray(String[]::new)}, encodes
+   * lazily and, for sized streams, directly into an array of the exact size.
+   *
+   * @return the single number encoding function
+   */
+  public LongFunction<String> encoder() {
+    return number -> encode(SCRATCH.get(), number);
+  }
+
+  /**
+   * Returns a function which decodes a hash holding a single number based on this instance
+   * configuration, throwing an {@link IllegalArgumentException} if the hash is invalid or does
+   * not hold a single number.
+   *
+   * @return the single number decoding function
+   */
+  public ToLongFunction<CharSequence> decoder() {
+    return hash -> decodeOne(hash, 0, hash.length());
+  }
+
+  /**
+   * Returns a collector which encodes each number of a stream into its own hash, based on this
+   * instance configuration, accumulating the resultant hashes in encounter order into an array.
+   *
+   * @return the encoding collector
+   */
+  public Collector<Long, ?, String[]> toHashes() {
+    return Collector.of(HashesBuffer::new,
+        (buffer, number) -> buffer.add(encode(SCRATCH.get(), number)),
+        HashesBuffer::addAll,
+        HashesBuffer::toArray);
+  }
+
+  /**
+   * Decodes each one of the given {@code hashes} based on this instance configuration, lazily
+   * streaming their numbers in encounter order. The resultant stream is parallel if the given one
+   * is, splitting the work as the hashes stream does.
+   *
+   * @param hashes the hashes to be decoded
+   * @return the stream of the numbers of the hashes
+   * @throws IllegalArgumentException (by the terminal operation) if any of the hashes is invalid
+   */
+  public LongStream decodeAll(final Stream<? extends CharSequence> hashes) {
+    return StreamSupport.longStream(new DecodingSpliterator(hashes.spliterator()),
+        hashes.isParallel()).onClose(hashes::close);
+  }
+
+  // -------------------
+  // Utility functions
+  // -------------------
+
+  // the listener is only notified once the outcome of an operation is out of the scratch buffers,
+  // which are then free to be reused by the listener itself, e.g. to sample the produced hashes
+
+  private long startTime() {
+    return listener == null ? 0 : System.nanoTime();
+  }
+
+  private String hash(final Scratch scratch, final int count, final long startTime) {
+    final String hash = scratch.hash();
+    encoded(count, hash.length(), startTime);
+    return hash;
+  }
+
+  private void encoded(final int count, final int length, final long startTime) {
+    if (listener != null) {
+      listener.encoded(count, length, System.nanoTime() - startTime);
+    }
+  }
+
+  void decoded(final int length, final int count, final long startTime) {
+    if (listener == null) {
+      return;
+    }
+    if (count < 0) {
+      listener.rejected(length, System.nanoTime() - startTime);
+    } else {
+      listener.decoded(length, count, System.nanoTime() - startTime);
+    }
+  }
+
+  private void decodedOne(final int length, final long number, final long startTime) {
+    decoded(length, number < 0 ? INVALID_HASH : 1, startTime);
+  }
+
+  // the keyring tries its candidate keys without notifying them, and then reports a single outcome
+  // to the matching key
+
+  long[] decodeUnobserved(final CharSequence hash) {
+    final Scratch scratch = SCRATCH.get();
+    final int count = decode(scratch, hash, 0, hash.length());
+    return count < 0 ? null : Arrays.copyOf(scratch.numbers, count);
+  }
+
+  int countUnobserved(final CharSequence hash) {
+    return decode(SCRATCH.get(), hash, 0, hash.length());
+  }
+
+  private int locateBlocks(final Scratch scratch, final CharSequence hash, final int offset,
+      final int end) {
+    final int hashLength = end - offset;
+
+    // hashes are never shorter than the minimum length
+    if (hashLength < minLength) {
+      return INVALID_HASH;
+    }
+
+    // locate the guards, validating the alphabet of the hash
+    int guardsCount = 0;
+    int startIdx = offset;
+    int endIdx = end;
+    for (int i = offset; i < end; i++) {
+      final int charClass = charClasses.classOf(hash.charAt(i));
+      if (charClass == CharClasses.GUARD) {
+        if (guardsCount == 0) {
+          startIdx = i + 1;
+        } else {
+          endIdx = i;
+        }
+        // no more than two guards are ever added
+        if (++guardsCount > 2) {
+          return INVALID_HASH;
+        }
+      } else if (charClass == CharClasses.INVALID) {
+        return INVALID_ALPHABET;
+      }
+    }
+
+    // guards are only added while the hash is shorter than the minimum length (which the padding
+    // then fulfills), a single guard always leads the hash and the lottery must be present
+    if ((guardsCount > 0 && hashLength != minLength) ||
+        (guardsCount == 1 && startIdx != offset + 1) ||
+        startIdx >= endIdx) {
+      return INVALID_HASH;
+    }
+
+    // the leading guard and padding are laid out after the length of the blocks
+    if (startIdx - offset != leftPadding(endIdx - startIdx)) {
+      return INVALID_HASH;
+    }
+
+    scratch.blocksStart = startIdx;
+    scratch.blocksEnd = endIdx;
+    return guardsCount;
+  }
+
+  // the leading guard and padding which precede the core (lottery, digits and separators) of a
+  // hash with the given length
+  private int leftPadding(final int coreLength) {
+    // no guards are added when the hash fulfills the minimum length
+    if (coreLength >= minLength) {
+      return 0;
+    }
+
+    // the first guard leads the hash, the second one (if any) trails it
+    final int padding = minLength - Math.min(coreLength + 2, minLength);
+    if (padding == 0) {
+      return 1;
+    }
+
+    // every complete alphabet contributes with its second half, while the last one contributes
+    // with the excess-adjusted part of it
+    final int rounds = (padding - 1) / alphabet.length;
+    final int lastPadding = padding - rounds * alphabet.length;
+    final int halfSize = alphabet.length / 2;
+    final int lastSecondHalf = alphabet.length - halfSize -
+        Math.floorDiv(alphabet.length - lastPadding, 2);
+    return 1 + rounds * (alphabet.length - halfSize) + lastSecondHalf;
+  }
+
+  private int digits(final long n) {
+    int length = 1;
+    while (length < digitPowers.length && n >= digitPowers[length]) {
+      length++;
+    }
+    return length;
+  }
+
+  private int translate(final long n, final char[] alphabet, final char[] out, final int offset) {
+    // count the digits, so that they can be written in place from the least significant one
+    final int length = digits(n);
+
+    long input = n;
+    int idx = offset + length;
+    do {
+      // write the chosen char
+      out[--idx] = alphabet[(int) (input % alphabet.length)];
+
+      // trim the input
+      input = input / alphabet.length;
+    } while (input > 0);
+
+    return offset + length;
+  }
+
+  private long translate(final CharSequence hash, final int start, final int end,
+      final char[] alphabet, final int[] positions) {
+    // map each character to its position in the current alphabet
+    for (int i = 0; i < alphabet.length; i++) {
+      positions[alphabetIndex(alphabet[i])] = i;
+    }
+
+    long number = 0;
+    final long limit = Long.MAX_VALUE / alphabet.length;
+    for (int i = start; i < end; i++) {
+      final int idx = alphabetIndex(hash.charAt(i));
+      if (idx < 0) {
+        return -1;
+      }
+
+      // accumulate the digit, unless the number would overflow
+      final int digit = positions[idx];
+      if (number > limit || (number *= alphabet.length) > Long.MAX_VALUE - digit) {
+        return -1;
+      }
+      number += digit;
+    }
+
+    return number;
+  }
+
+  private int translate(final BigInteger n, final char[] alphabet, final BigInteger[] powers,
+      final int level, final boolean pad, final char[] out, final int offset) {
+    // the smallest chunks fit in a long, and are zero-padded unless they lead the number
+    if (level < 0) {
+      if (!pad) {
+        return translate(n.longValue(), alphabet, out, offset);
+      }
+      long input = n.longValue();
+      final int chunkDigits = digitPowers.length - 1;
+      for (int idx = offset + chunkDigits - 1; idx >= offset; idx--) {
+        out[idx] = alphabet[(int) (input % alphabet.length)];
+        input /= alphabet.length;
+      }
+      return offset + chunkDigits;
+    }
+
+    // skip the levels above a leading number
+    if (!pad && n.compareTo(powers[level]) < 0) {
+      return translate(n, alphabet, powers, level - 1, false, out, offset);
+    }
+
+    // split the number in two halves of digits, and encode each one of them
+    final BigInteger[] halves = n.divideAndRemainder(powers[level]);
+    final int middle = translate(halves[0], alphabet, powers, level - 1, pad, out, offset);
+    return translate(halves[1], alphabet, powers, level - 1, true, out, middle);
+  }
+
+  private BigInteger translate(final CharSequence hash, final int start, final int end,
+      final int[] positions, final BigInteger[] powers) {
+    // the smallest chunks fit in a long
+    final int chunkDigits = digitPowers.length - 1;
+    final int length = end - start;
+    if (length <= chunkDigits) {
+      long number = 0;
+      for (int i = start; i < end; i++) {
+        number = number * alphabet.length + positions[alphabetIndex(hash.charAt(i))];
+      }
+      return BigInteger.valueOf(number);
+    }
+
+    // split the digits at the largest power of the chunks below their length
+    int level = 0;
+    while ((long) chunkDigits << (level + 1) < length) {
+      level++;
+    }
+    final int middle = end - (chunkDigits << level);
+    return translate(hash, start, middle, positions, powers).multiply(powers[level])
+        .add(translate(hash, middle, end, positions, powers));
+  }
+
+  private BigInteger[] radixPowers(final int digits) {
+    // the powers of the alphabet length which split numbers of the given digits in halves
+    final int chunkDigits = digitPowers.length - 1;
+    int levels = 1;
+    for (long covered = chunkDigits; covered < digits; covered *= 2) {
+      levels++;
+    }
+
+    final BigInteger[] powers = new BigInteger[levels];
+    powers[0] = BigInteger.valueOf(alphabet.length).pow(chunkDigits);
+    for (int i = 1; i < levels; i++) {
+      powers[i] = powers[i - 1].multiply(powers[i - 1]);
+    }
+    return powers;
+  }
+
+  private static void parallel(final ForkJoinPool pool, final int length,
+      final RangeAction action) {
+    // split in a few chunks per worker, but never so small that splitting outweighs the work
+    final int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE,
+        length / (pool.getParallelism() * PARALLEL_CHUNKS_PER_WORKER));
+    if (length <= chunkSize) {
+      action.apply(0, length);
+    } else {
+      pool.invoke(new RangeTask(0, length, chunkSize, action));
+    }
+  }
+
+  private static void validateEach(final long[] numbers) {
+    // validate up front, so that a failure does not leave a partially encoded batch behind
+    for (final long number : numbers) {
+      if (number < 0) {
+        throw new IllegalArgumentException("invalid number: " + number);
+      }
+    }
+  }
+
+  private boolean validGuards(final CharSequence hash, final int startIdx, final int endIdx,
+      final int guardsCount, final long lotteryId, final char lottery) {
+    final int length = endIdx - startIdx;
+    if (guardsCount == 0) {
+      // no guards are added when the hash fulfills the minimum length
+      return length >= minLength;
+    }
+
+    // the first guard is prepended when the hash is shorter than the minimum length
+    final int guardIdx = (int) ((lotteryId + lottery) % guards.length);
+    if (length >= minLength || hash.charAt(startIdx - 1) != guards[guardIdx]) {
+      return false;
+    }
+
+    // the second guard is appended when the first one is not enough
+    if (guardsCount == 1) {
+      return length + 1 == minLength;
+    }
+    final int secondGuardIdx = (int) ((lotteryId + hash.charAt(startIdx + 1)) % guards.length);
+    return length + 1 < minLength && hash.charAt(endIdx) == guards[secondGuardIdx];
+  }
+
+  private boolean validPadding(final CharSequence hash, final int offset, final int limit,
+      final int guardedStart, final int guardedEnd, final Scratch scratch) {
+    final char[] currentAlphabet = scratch.alphabet;
+    int start = guardedStart;
+    int end = guardedEnd;
+    int paddingLeft = minLength - (end - start);
+    while (paddingLeft > 0) {
+      System.arraycopy(currentAlphabet, 0, scratch.salt, 0, currentAlphabet.length);
+      shuffle(currentAlphabet, scratch.salt);
+
+      // determine the halves of the alphabet surrounding the hash
+      final int alphabetHalfSize = currentAlphabet.length / 2;
+      final int secondHalfStartOffset, secondHalfLength, firstHalfLength;
+      if (paddingLeft > currentAlphabet.length) {
+        secondHalfStartOffset = alphabetHalfSize;
+        secondHalfLength = currentAlphabet.length - alphabetHalfSize;
+        firstHalfLength = alphabetHalfSize;
+      } else {
+        final int excess = currentAlphabet.length + (end - start) - minLength;
+        secondHalfStartOffset = alphabetHalfSize + Math.floorDiv(excess, 2);
+        secondHalfLength = currentAlphabet.length - secondHalfStartOffset;
+        firstHalfLength = paddingLeft - secondHalfLength;
+      }
+
+      // compare them in place
+      start -= secondHalfLength;
+      if (start < offset || end + firstHalfLength > limit ||
+          !regionMatches(hash, start, currentAlphabet, secondHalfStartOffset, secondHalfLength) ||
+          !regionMatches(hash, end, currentAlphabet, 0, firstHalfLength)) {
+        return false;
+      }
+      end += firstHalfLength;
+      paddingLeft -= secondHalfLength + firstHalfLength;
+    }
+
+    return start == offset;
+  }
+
+  private static boolean regionMatches(final CharSequence hash, final int offset,
+      final char[] chars, final int charsOffset, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (hash.charAt(offset + i) != chars[charsOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void checkRange(final CharSequence src, final int start, final int end) {
+    if (start < 0 || end > src.length() || start > end) {
+      throw new IndexOutOfBoundsException(String.format("invalid range [%d, %d) of sequence " +
+          "with length %d", start, end, src.length()));
+    }
+  }
+
+  private static IllegalArgumentException invalidHash(final int count, final CharSequence src,
+      final int start, final int end) {
+    return new IllegalArgumentException(count == INVALID_ALPHABET ? "Invalid alphabet for hash" :
+        "invalid hash: " + src.subSequence(start, end));
+  }
+
+  private int alphabetIndex(final char c) {
+    // every other class is negative
+    return charClasses.classOf(c);
+  }
+
+  private void deriveFirstAlphabet(final int lotteryIdx, final char[] target,
+      final char[] newSalt) {
+    if (lotteryAlphabets != null) {
+      System.arraycopy(lotteryAlphabets[lotteryIdx], 0, target, 0, target.length);
+    } else {
+      System.arraycopy(alphabet, 0, target, 0, target.length);
+      deriveNewAlphabet(target, salt, alphabet[lotteryIdx], newSalt);
+    }
+  }
+
+  private char[] deriveNewAlphabet(final char[] alphabet, final char[] salt, final char lottery,
+      final char[] newSalt) {
+    // 1. lottery
+    newSalt[0] = lottery;
+    int spaceLeft = newSalt.length - 1;
+    int offset = 1;
+    // 2. salt
+    if (salt.length > 0 && spaceLeft > 0) {
+      int length = salt.length > spaceLeft ? spaceLeft : salt.length;
+      System.arraycopy(salt, 0, newSalt, offset, length);
+      spaceLeft -= length;
+      offset += length;
+    }
+    // 3. alphabet
+    if (spaceLeft > 0) {
+      System.arraycopy(alphabet, 0, newSalt, offset, spaceLeft);
+    }
+
+    // shuffle
+    return shuffle(alphabet, newSalt);
+  }
+
+  private static boolean isAscii(final char[] chars) {
+    for (final char c : chars) {
+      if (c > MAX_ASCII_CHAR) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long tablesSize(final int alphabetLength) {
+    // one alphabet per lottery character, plus the array holding them
+    final long tableSize = ARRAY_HEADER_SIZE + (2L * alphabetLength + 7) / 8 * 8;
+    return ARRAY_HEADER_SIZE + (long) alphabetLength * (REFERENCE_SIZE + tableSize);
+  }
+
+  private static long[] digitPowers(final int base) {
+    // the powers of the base which fit in a long, one per digit of the largest number
+    final long[] powers = new long[maxDigits(base)];
+    powers[0] = 1;
+    for (int i = 1; i < powers.length; i++) {
+      powers[i] = powers[i - 1] * base;
+    }
+    return powers;
+  }
+
+  private static int maxDigits(final int base) {
+    int digits = 1;
+    for (long input = Long.MAX_VALUE / base; input > 0; input /= base) {
+      digits++;
+    }
+    return digits;
+  }
+
+  private char[] validateAndFilterAlphabet(final char[] alphabet, final char[] separators) {
+    // validate size
+    if (alphabet.length < MIN_ALPHABET_LENGTH) {
+      throw new IllegalArgumentException(String.format("alphabet must contain at least %d unique " +
+          "characters: %d", MIN_ALPHABET_LENGTH, alphabet.length));
+    }
+
+    // keep the first occurrence of each character, other than the separators
+    final BitSet seen = charSet(separators);
+    final char[] uniqueAlphabet = new char[alphabet.length];
+    int length = 0;
+    for (int i = 0; i < alphabet.length; i++) {
+      final char c = alphabet[i];
+      if (c == ' ') {
+        throw new IllegalArgumentException(String.format("alphabet must not contain spaces: " +
+            "index %d", i));
+      }
+      if (!seen.get(c)) {
+        seen.set(c);
+        uniqueAlphabet[length++] = c;
+      }
+    }
+    return Arrays.copyOf(uniqueAlphabet, length);
+  }
+
+  private char[] filterSeparators(final char[] separators, final char[] alphabet) {
+    // keep the separators which are part of the alphabet
+    final BitSet valid = charSet(alphabet);
+    final char[] filtered = new char[separators.length];
+    int length = 0;
+    for (final char c : separators) {
+      if (valid.get(c)) {
+        filtered[length++] = c;
+      }
+    }
+    return Arrays.copyOf(filtered, length);
+  }
+
+  private static BitSet charSet(final char[] chars) {
+    final BitSet set = new BitSet();
+    for (final char c : chars) {
+      set.set(c);
+    }
+    return set;
+  }
+
+  private char[] shuffle(final char[] alphabet, final char[] salt) {
     for (int i = alphabet.length - 1, v = 0, p = 0, j, z; salt.length > 0 && i > 0; i--, v++) {
       v %= salt.length;
       p += z = salt[v];
@@ -608,4 +2299,194 @@ public class Hashids {
     }
     return alphabet;
   }
+
+  // reusable buffers of a thread, shared by every instance: the alphabet buffers are sized after
+  // the last alphabet used, while oversized output and numbers buffers are released
+  private static final class Scratch {
+
+    // capacities of the output and numbers buffers which are retained across operations
+    private static final int MAX_RETAINED_OUTPUT = 1024;
+    private static final int MAX_RETAINED_NUMBERS = 128;
+
+    // working alphabet, salt and alphabet positions, all sized after the instance alphabet
+    char[] alphabet = new char[0];
+    char[] salt = new char[0];
+    int[] positions = new int[0];
+
+    // decoded numbers
+    long[] numbers = new long[1];
+
+    // output buffer, with the last produced hash between start and end
+    char[] out = new char[0];
+    int start;
+    int end;
+
+    // bounds of the blocks of the last decoded hash, between its guards
+    int blocksStart;
+    int blocksEnd;
+
+    // prepares the buffers for the given alphabet length, releasing the oversized ones
+    void fit(final int alphabetLength) {
+      if (alphabet.length != alphabetLength) {
+        alphabet = new char[alphabetLength];
+        salt = new char[alphabetLength];
+        positions = new int[alphabetLength];
+      }
+      if (out.length > MAX_RETAINED_OUTPUT) {
+        out = new char[0];
+      }
+      if (numbers.length > MAX_RETAINED_NUMBERS) {
+        numbers = new long[1];
+      }
+    }
+
+    String hash() {
+      return new String(out, start, end - start);
+    }
+
+    long[] numbers(final int capacity) {
+      if (numbers.length < capacity) {
+        numbers = Arrays.copyOf(numbers, Math.max(capacity, numbers.length * 2));
+      }
+      return numbers;
+    }
+
+    char[] output(final int capacity) {
+      if (out.length < capacity) {
+        out = new char[Math.max(capacity, out.length * 2)];
+      }
+      return out;
+    }
+  }
+
+  // an action over a range of indexes of a batch
+  @FunctionalInterface
+  private interface RangeAction {
+
+    void apply(int from, int to);
+  }
+
+  // splits a batch in halves down to the chunk size, applying the action to each chunk
+  private static final class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+    private final RangeAction action;
+
+    private RangeTask(final int from, final int to, final int chunkSize,
+        final RangeAction action) {
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        action.apply(from, to);
+      } else {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, chunkSize, action),
+            new RangeTask(middle, to, chunkSize, action));
+      }
+    }
+  }
+
+  // growable array of hashes, accumulated by the encoding collector
+  private static final class HashesBuffer {
+
+    private String[] hashes = new String[16];
+    private int size;
+
+    private void add(final String hash) {
+      if (size == hashes.length) {
+        hashes = Arrays.copyOf(hashes, size * 2);
+      }
+      hashes[size++] = hash;
+    }
+
+    private HashesBuffer addAll(final HashesBuffer other) {
+      if (hashes.length < size + other.size) {
+        hashes = Arrays.copyOf(hashes, Math.max(size + other.size, size * 2));
+      }
+      System.arraycopy(other.hashes, 0, hashes, size, other.size);
+      size += other.size;
+      return this;
+    }
+
+    private String[] toArray() {
+      return size == hashes.length ? hashes : Arrays.copyOf(hashes, size);
+    }
+  }
+
+  // the numbers of a source of hashes, decoding each hash once the previous numbers are consumed
+  private final class DecodingSpliterator implements Spliterator.OfLong {
+
+    private final Spliterator<? extends CharSequence> hashes;
+
+    // the numbers of the current hash, which are not yet consumed from next to count
+    private long[] numbers = new long[1];
+    private int next;
+    private int count;
+
+    private DecodingSpliterator(final Spliterator<? extends CharSequence> hashes) {
+      this.hashes = hashes;
+    }
+
+    @Override
+    public boolean tryAdvance(final LongConsumer action) {
+      while (next == count) {
+        if (!hashes.tryAdvance(this::decodeNext)) {
+          return false;
+        }
+      }
+      action.accept(numbers[next++]);
+      return true;
+    }
+
+    private void decodeNext(final CharSequence hash) {
+      final Scratch scratch = SCRATCH.get();
+      final long startTime = startTime();
+      final int decodedCount = decode(scratch, hash, 0, hash.length());
+      if (decodedCount < 0) {
+        final IllegalArgumentException e = invalidHash(decodedCount, hash, 0, hash.length());
+        decoded(hash.length(), decodedCount, startTime);
+        throw e;
+      }
+
+      // copy the numbers, as the scratch may be reused by the consumer of the stream
+      if (numbers.length < decodedCount) {
+        numbers = new long[Math.max(decodedCount, numbers.length * 2)];
+      }
+      System.arraycopy(scratch.numbers, 0, numbers, 0, decodedCount);
+      next = 0;
+      count = decodedCount;
+      decoded(hash.length(), decodedCount, startTime);
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+      // the pending numbers precede the split prefix of the hashes, hence those must go first
+      if (next < count) {
+        return null;
+      }
+      final Spliterator<? extends CharSequence> prefix = hashes.trySplit();
+      return prefix == null ? null : new DecodingSpliterator(prefix);
+    }
+
+    @Override
+    public long estimateSize() {
+      // most hashes hold a single number
+      return hashes.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      return hashes.characteristics() & ORDERED | NONNULL;
+    }
+  }
 }
@@ -0,0 +1,359 @@
+package pt.davidafsilva.hashids;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable set of versioned {@link Hashids} instances (keys), which supports the rotation of
+ * salts: hashes are always encoded with the active key, while hashes encoded with any of the
+ * previous keys are still decoded, along with the version of the key that produced them.
+ *
+ * Decoding first scans the hash once against the characters, guards and minimum lengths of all
+ * the keys, which discards the keys that could not have produced it, and then tries the remaining
+ * ones, from the active key to the oldest one, without throwing nor catching any exception. A
+ * hash which happens to be valid for more than one key is decoded with the first one of them in
+ * that order. Only a single outcome is reported to the listeners of the keys: the decoding to the
+ * matching key, or the rejection to the active key when no key matches.
+ *
+ * A keyring holds up to {@value #MAX_KEYS} keys.
+ *
+ * @author david
+ */
+public final class HashidsKeyring {
+
+  /**
+   * The maximum number of keys of a keyring.
+   */
+  public static final int MAX_KEYS = Long.SIZE;
+
+  // the keys and their versions, in decoding order: the active key first, then the newest to the
+  // oldest one
+  private final int[] versions;
+  private final Hashids[] keys;
+  private final KeyClasses keyClasses;
+
+  private HashidsKeyring(final int[] versions, final Hashids[] keys) {
+    this.versions = versions;
+    this.keys = keys;
+    this.keyClasses = new KeyClasses(keys);
+  }
+
+  /**
+   * Returns a new keyring with the given key as the active one.
+   *
+   * @param version the version of the key
+   * @param active  the key used for encoding and decoding
+   * @return a new keyring
+   * @throws IllegalArgumentException if the version is negative
+   */
+  public static HashidsKeyring newInstance(final int version, final Hashids active) {
+    checkVersion(version);
+    return new HashidsKeyring(new int[]{version}, new Hashids[]{active});
+  }
+
+  /**
+   * Returns a copy of this keyring with the given previous key, which is only used for decoding.
+   *
+   * @param version the version of the key
+   * @param hashids the key
+   * @return the resultant keyring
+   * @throws IllegalArgumentException if the version is negative or already part of the keyring, or
+   *                                  if the keyring is full
+   */
+  public HashidsKeyring withKey(final int version, final Hashids hashids) {
+    checkVersion(version);
+
+    // keep the previous keys sorted from the newest to the oldest one
+    int idx = 1;
+    while (idx < versions.length && versions[idx] > version) {
+      idx++;
+    }
+    return insert(idx, version, hashids);
+  }
+
+  /**
+   * Returns a copy of this keyring with the given key as the active one, retaining the current
+   * active key for decoding only.
+   *
+   * @param version the version of the key
+   * @param active  the key used for encoding and decoding
+   * @return the resultant keyring
+   * @throws IllegalArgumentException if the version is negative or already part of the keyring, or
+   *                                  if the keyring is full
+   */
+  public HashidsKeyring withActiveKey(final int version, final Hashids active) {
+    HashidsKeyring keyring = newInstance(version, active);
+    for (int i = 0; i < keys.length; i++) {
+      keyring = keyring.withKey(versions[i], keys[i]);
+    }
+    return keyring;
+  }
+
+  /**
+   * Returns the version of the active key.
+   *
+   * @return the active version
+   */
+  public int activeVersion() {
+    return versions[0];
+  }
+
+  /**
+   * Returns the key with the given version.
+   *
+   * @param version the version of the key
+   * @return the key, {@code null} if there is no key with that version
+   */
+  public Hashids key(final int version) {
+    final int idx = indexOf(version);
+    return idx < 0 ? null : keys[idx];
+  }
+
+  //-------------------------
+  // Encode
+  //-------------------------
+
+  /**
+   * Encodes the given {@code numbers} with the active key.
+   *
+   * @param numbers the numbers to be encoded
+   * @return the resultant hash, {@code null} if {@code numbers} is {@code null}.
+   * @throws IllegalArgumentException if any of the numbers is not supported
+   * @see Hashids#encode(long...)
+   */
+  public String encode(final long... numbers) {
+    return keys[0].encode(numbers);
+  }
+
+  /**
+   * Encodes the given {@code number} with the active key.
+   *
+   * @param number the number to be encoded
+   * @return the resultant hash
+   * @throws IllegalArgumentException if the number is not supported
+   * @see Hashids#encodeOne(long)
+   */
+  public String encodeOne(final long number) {
+    return keys[0].encodeOne(number);
+  }
+
+  //-------------------------
+  // Decode
+  //-------------------------
+
+  /**
+   * Decodes the given {@code hash} with the first key for which it is valid.
+   *
+   * @param hash the hash to be decoded
+   * @return the decoded numbers along with the version of the matching key, {@code null} if
+   * {@code hash} is {@code null} or not valid for any key.
+   */
+  public Decoded decode(final CharSequence hash) {
+    if (hash == null) {
+      return null;
+    }
+
+    final long startTime = System.nanoTime();
+    for (long candidates = keyClasses.candidates(hash); candidates != 0;
+        candidates &= candidates - 1) {
+      final int idx = Long.numberOfTrailingZeros(candidates);
+      final long[] numbers = keys[idx].decodeUnobserved(hash);
+      if (numbers != null) {
+        keys[idx].decoded(hash.length(), numbers.length, startTime);
+        return new Decoded(versions[idx], numbers);
+      }
+    }
+    keys[0].decoded(hash.length(), Hashids.INVALID_HASH, startTime);
+    return null;
+  }
+
+  /**
+   * Returns the version of the first key for which the given {@code hash} is valid.
+   *
+   * @param hash the hash to be checked
+   * @return the version of the matching key, {@code -1} if {@code hash} is {@code null} or not
+   * valid for any key.
+   */
+  public int versionOf(final CharSequence hash) {
+    if (hash == null) {
+      return -1;
+    }
+
+    final long startTime = System.nanoTime();
+    for (long candidates = keyClasses.candidates(hash); candidates != 0;
+        candidates &= candidates - 1) {
+      final int idx = Long.numberOfTrailingZeros(candidates);
+      final int count = keys[idx].countUnobserved(hash);
+      if (count >= 0) {
+        keys[idx].decoded(hash.length(), count, startTime);
+        return versions[idx];
+      }
+    }
+    keys[0].decoded(hash.length(), Hashids.INVALID_HASH, startTime);
+    return -1;
+  }
+
+  // -------------------
+  // Utility functions
+  // -------------------
+
+  private HashidsKeyring insert(final int idx, final int version, final Hashids hashids) {
+    if (indexOf(version) >= 0) {
+      throw new IllegalArgumentException("duplicate version: " + version);
+    }
+    if (keys.length == MAX_KEYS) {
+      throw new IllegalArgumentException("too many keys: " + (keys.length + 1));
+    }
+
+    final int[] newVersions = new int[versions.length + 1];
+    final Hashids[] newKeys = new Hashids[keys.length + 1];
+    System.arraycopy(versions, 0, newVersions, 0, idx);
+    System.arraycopy(keys, 0, newKeys, 0, idx);
+    newVersions[idx] = version;
+    newKeys[idx] = hashids;
+    System.arraycopy(versions, idx, newVersions, idx + 1, versions.length - idx);
+    System.arraycopy(keys, idx, newKeys, idx + 1, keys.length - idx);
+    return new HashidsKeyring(newVersions, newKeys);
+  }
+
+  private int indexOf(final int version) {
+    for (int i = 0; i < versions.length; i++) {
+      if (versions[i] == version) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static void checkVersion(final int version) {
+    if (version < 0) {
+      throw new IllegalArgumentException("invalid version: " + version);
+    }
+  }
+
+  // the characters, guards and minimum lengths of all the keys of a keyring, as masks with a bit
+  // per key (in decoding order), narrowing down the keys which could have produced a hash
+  private static final class KeyClasses {
+
+    private static final int DENSE_LENGTH = 128;
+
+    // the keys which accept (as alphabet, separator or guard) each character, and the keys for
+    // which it is a guard, as a dense table for ASCII and a sorted table for the remaining ones
+    private final long[] denseAccepted = new long[DENSE_LENGTH];
+    private final long[] denseGuards = new long[DENSE_LENGTH];
+    private final char[] wideChars;
+    private final long[] wideAccepted;
+    private final long[] wideGuards;
+    private final int[] minLengths;
+
+    private KeyClasses(final Hashids[] keys) {
+      final Map<Character, long[]> wide = new TreeMap<>();
+      minLengths = new int[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        final PreparedConfig config = keys[i].prepare();
+        final long bit = 1L << i;
+        add(wide, config.alphabet, bit, false);
+        add(wide, config.separators, bit, false);
+        add(wide, config.guards, bit, true);
+        minLengths[i] = config.minLength;
+      }
+
+      wideChars = new char[wide.size()];
+      wideAccepted = new long[wide.size()];
+      wideGuards = new long[wide.size()];
+      int idx = 0;
+      for (final Map.Entry<Character, long[]> entry : wide.entrySet()) {
+        wideChars[idx] = entry.getKey();
+        wideAccepted[idx] = entry.getValue()[0];
+        wideGuards[idx] = entry.getValue()[1];
+        idx++;
+      }
+    }
+
+    private void add(final Map<Character, long[]> wide, final char[] chars, final long bit,
+        final boolean guard) {
+      for (final char c : chars) {
+        if (c < DENSE_LENGTH) {
+          denseAccepted[c] |= bit;
+          denseGuards[c] |= guard ? bit : 0;
+        } else {
+          final long[] masks = wide.computeIfAbsent(c, k -> new long[2]);
+          masks[0] |= bit;
+          masks[1] |= guard ? bit : 0;
+        }
+      }
+    }
+
+    // the keys which accept every character of the hash, not shorter than their minimum length and
+    // with no more than two guards, which are only added to hashes as long as the minimum length
+    long candidates(final CharSequence hash) {
+      final int length = hash.length();
+      long candidates = 0;
+      long exactLength = 0;
+      for (int i = 0; i < minLengths.length; i++) {
+        if (length >= minLengths[i]) {
+          candidates |= 1L << i;
+        }
+        if (length == minLengths[i]) {
+          exactLength |= 1L << i;
+        }
+      }
+
+      // the keys which have seen one or more, and two or more guards
+      long once = 0;
+      long twice = 0;
+      for (int i = 0; i < length && candidates != 0; i++) {
+        final char c = hash.charAt(i);
+        final long guards;
+        if (c < DENSE_LENGTH) {
+          candidates &= denseAccepted[c];
+          guards = denseGuards[c] & candidates;
+        } else {
+          final int idx = Arrays.binarySearch(wideChars, c);
+          candidates &= idx < 0 ? 0 : wideAccepted[idx];
+          guards = idx < 0 ? 0 : wideGuards[idx] & candidates;
+        }
+        if (guards != 0) {
+          candidates &= ~(twice & guards);
+          twice |= once & guards;
+          once |= guards;
+        }
+      }
+      return candidates & ~(once & ~exactLength);
+    }
+  }
+
+  /**
+   * The outcome of decoding a hash with a keyring: the decoded numbers and the version of the key
+   * which decoded them.
+   */
+  public static final class Decoded {
+
+    private final int version;
+    private final long[] numbers;
+
+    private Decoded(final int version, final long[] numbers) {
+      this.version = version;
+      this.numbers = numbers;
+    }
+
+    /**
+     * Returns the version of the key which decoded the hash.
+     *
+     * @return the version of the key
+     */
+    public int version() {
+      return version;
+    }
+
+    /**
+     * Returns the decoded numbers.
+     *
+     * @return the numbers of the hash
+     */
+    public long[] numbers() {
+      return Arrays.copyOf(numbers, numbers.length);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package pt.davidafsilva.hashids;
+
+/**
+ * Listener of the encodings and decodings performed by an instrumented {@link Hashids} instance.
+ * The listener is notified on the calling thread, right after each operation, hence it must be
+ * thread-safe and as cheap as possible. Each operation is complete by then, so the listener may
+ * use the instance itself, e.g. to sample the produced hashes.
+ *
+ * @author david
+ * @see Hashids#withListener(HashidsListener)
+ * @see HashidsMetrics
+ */
+public interface HashidsListener {
+
+  /**
+   * Notifies that numbers were encoded into a hash.
+   *
+   * @param count  the amount of encoded numbers
+   * @param length the length of the resultant hash
+   * @param nanos  the duration of the encoding, in nanoseconds
+   */
+  void encoded(int count, int length, long nanos);
+
+  /**
+   * Notifies that a hash was decoded into its numbers.
+   *
+   * @param length the length of the decoded hash
+   * @param count  the amount of decoded numbers
+   * @param nanos  the duration of the decoding, in nanoseconds
+   */
+  void decoded(int length, int count, long nanos);
+
+  /**
+   * Notifies that a hash was rejected while being decoded, either because it is invalid or
+   * because it does not hold the expected amount of numbers.
+   *
+   * @param length the length of the rejected hash
+   * @param nanos  the duration of the decoding, in nanoseconds
+   */
+  void rejected(int length, long nanos);
+}
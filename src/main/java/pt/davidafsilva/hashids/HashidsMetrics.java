@@ -0,0 +1,140 @@
+package pt.davidafsilva.hashids;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Default {@link HashidsListener}, which counts the encodings, decodings and rejected hashes of
+ * the instances it is installed on, along with the lengths of the produced hashes and histograms
+ * of the latencies of both operations. Every metric is updated without locking, and is readable
+ * through JMX once the metrics are {@link #register(String) registered}.
+ *
+ * @author david
+ * @see Hashids#withListener(HashidsListener)
+ */
+public final class HashidsMetrics implements HashidsListener, HashidsMetricsMBean {
+
+  // the domain of the registered object names
+  private static final String DOMAIN = "pt.davidafsilva.hashids";
+
+  // counters
+  private final LongAdder encodes = new LongAdder();
+  private final LongAdder decodes = new LongAdder();
+  private final LongAdder invalid = new LongAdder();
+  private final LongAdder hashLengths = new LongAdder();
+  private final LongAccumulator maxHashLength = new LongAccumulator(Math::max, 0);
+
+  // latencies, in nanoseconds
+  private final LatencyHistogram encodeLatencies = new LatencyHistogram();
+  private final LatencyHistogram decodeLatencies = new LatencyHistogram();
+
+  @Override
+  public void encoded(final int count, final int length, final long nanos) {
+    encodes.increment();
+    hashLengths.add(length);
+    maxHashLength.accumulate(length);
+    encodeLatencies.record(nanos);
+  }
+
+  @Override
+  public void decoded(final int length, final int count, final long nanos) {
+    decodes.increment();
+    decodeLatencies.record(nanos);
+  }
+
+  @Override
+  public void rejected(final int length, final long nanos) {
+    invalid.increment();
+    decodeLatencies.record(nanos);
+  }
+
+  /**
+   * Registers these metrics in the platform MBean server, under the given name.
+   *
+   * @param name the name of the metrics, e.g. the name of the instrumented instance
+   * @return the object name of the registered metrics
+   * @throws IllegalStateException if the metrics cannot be registered
+   */
+  public ObjectName register(final String name) {
+    try {
+      final ObjectName objectName = new ObjectName(DOMAIN + ":type=" +
+          HashidsMetrics.class.getSimpleName() + ",name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      return objectName;
+    } catch (final JMException e) {
+      throw new IllegalStateException("unable to register metrics: " + name, e);
+    }
+  }
+
+  /**
+   * Returns the encoding latency, in nanoseconds, below which the given percentage of the
+   * encodings fall.
+   *
+   * @param percentile the percentage of encodings, between {@code 0} and {@code 100}
+   * @return the latency at the percentile, {@code 0} if there was no encoding
+   */
+  public long encodeLatency(final double percentile) {
+    return encodeLatencies.percentile(percentile);
+  }
+
+  /**
+   * Returns the decoding latency, in nanoseconds, below which the given percentage of the
+   * decodings (including the rejected ones) fall.
+   *
+   * @param percentile the percentage of decodings, between {@code 0} and {@code 100}
+   * @return the latency at the percentile, {@code 0} if there was no decoding
+   */
+  public long decodeLatency(final double percentile) {
+    return decodeLatencies.percentile(percentile);
+  }
+
+  @Override
+  public long getEncodeCount() {
+    return encodes.sum();
+  }
+
+  @Override
+  public long getDecodeCount() {
+    return decodes.sum();
+  }
+
+  @Override
+  public long getInvalidCount() {
+    return invalid.sum();
+  }
+
+  @Override
+  public double getAverageHashLength() {
+    final long count = encodes.sum();
+    return count == 0 ? 0 : (double) hashLengths.sum() / count;
+  }
+
+  @Override
+  public long getMaxHashLength() {
+    return maxHashLength.get();
+  }
+
+  @Override
+  public long getEncodeLatencyMedian() {
+    return encodeLatency(50);
+  }
+
+  @Override
+  public long getEncodeLatency99thPercentile() {
+    return encodeLatency(99);
+  }
+
+  @Override
+  public long getDecodeLatencyMedian() {
+    return decodeLatency(50);
+  }
+
+  @Override
+  public long getDecodeLatency99thPercentile() {
+    return decodeLatency(99);
+  }
+}
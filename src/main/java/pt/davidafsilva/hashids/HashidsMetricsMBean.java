@@ -0,0 +1,28 @@
+package pt.davidafsilva.hashids;
+
+/**
+ * Management interface of {@link HashidsMetrics}, exposing its counters and latency percentiles
+ * (in nanoseconds) as JMX attributes.
+ *
+ * @author david
+ */
+public interface HashidsMetricsMBean {
+
+  long getEncodeCount();
+
+  long getDecodeCount();
+
+  long getInvalidCount();
+
+  double getAverageHashLength();
+
+  long getMaxHashLength();
+
+  long getEncodeLatencyMedian();
+
+  long getEncodeLatency99thPercentile();
+
+  long getDecodeLatencyMedian();
+
+  long getDecodeLatency99thPercentile();
+}
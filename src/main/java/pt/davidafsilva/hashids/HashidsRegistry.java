@@ -0,0 +1,186 @@
+package pt.davidafsilva.hashids;
+
+import java.util.Arrays;
+
+/**
+ * A thread-safe registry of {@link Hashids} instances, resolving equal configurations (salt,
+ * alphabet and minimum hash length) to a shared instance instead of building a new one each time.
+ * The registry holds at most a fixed amount of instances, evicting the least recently used ones
+ * once full, which suits deployments with one configuration per tenant. Instances hold no
+ * per-thread state of their own, given that the working buffers of each thread are shared by
+ * every instance, hence neither the held nor the evicted instances retain memory in the threads
+ * which used them.
+ *
+ * @author david
+ */
+public final class HashidsRegistry {
+
+  // registry defaults
+  public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  // the cached instances
+  private final BoundedCache<Configuration, Hashids> instances;
+
+  /**
+   * Creates a new registry holding at most the given amount of instances.
+   *
+   * @param maximumSize the maximum amount of instances held by the registry
+   */
+  private HashidsRegistry(final int maximumSize) {
+    this.instances = new BoundedCache<>(maximumSize);
+  }
+
+  /**
+   * Returns a new registry holding at most {@link #DEFAULT_MAXIMUM_SIZE} instances.
+   *
+   * @return a new registry
+   */
+  public static HashidsRegistry newInstance() {
+    return newInstance(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * Returns a new registry holding at most {@code maximumSize} instances.
+   *
+   * @param maximumSize the maximum amount of instances held by the registry
+   * @return a new registry
+   * @throws IllegalArgumentException if the maximum size is not positive
+   */
+  public static HashidsRegistry newInstance(final int maximumSize) {
+    return new HashidsRegistry(maximumSize);
+  }
+
+  /**
+   * Returns the instance of the algorithm with the given salt and the
+   * {@link Hashids#DEFAULT_ALPHABET default alphabet} with no minimum hash length.
+   *
+   * @param salt the salt to be used as entropy for the algorithm
+   * @return the shared instance of the algorithm
+   * @see Hashids#newInstance(String)
+   */
+  public Hashids get(final String salt) {
+    return get(salt.toCharArray(), Hashids.DEFAULT_ALPHABET, -1);
+  }
+
+  /**
+   * Returns the instance of the algorithm with the given salt and the
+   * {@link Hashids#DEFAULT_ALPHABET default alphabet} with {@code minLength} as the minimum hash
+   * length.
+   *
+   * @param salt      the salt to be used as entropy for the algorithm
+   * @param minLength the minimum hash length
+   * @return the shared instance of the algorithm
+   * @see Hashids#newInstance(String, int)
+   */
+  public Hashids get(final String salt, final int minLength) {
+    return get(salt.toCharArray(), Hashids.DEFAULT_ALPHABET, minLength);
+  }
+
+  /**
+   * Returns the instance of the algorithm with the given salt and the alphabet and
+   * {@code minLength} as the minimum hash length.
+   *
+   * @param salt      the salt to be used as entropy for the algorithm
+   * @param alphabet  the alphabet to be used for the hash generation
+   * @param minLength the minimum hash length
+   * @return the shared instance of the algorithm
+   * @see Hashids#newInstance(String, String, int)
+   */
+  public Hashids get(final String salt, final String alphabet, final int minLength) {
+    return get(salt.toCharArray(), alphabet.toCharArray(), minLength);
+  }
+
+  /**
+   * Returns the instance of the algorithm with the given salt and the alphabet and
+   * {@code minLength} as the minimum hash length.
+   *
+   * @param salt      the salt to be used as entropy for the algorithm
+   * @param alphabet  the alphabet to be used for the hash generation
+   * @param minLength the minimum hash length
+   * @return the shared instance of the algorithm
+   * @see Hashids#newInstance(char[], char[], int)
+   */
+  public Hashids get(final char[] salt, final char[] alphabet, final int minLength) {
+    // every non-positive minimum length has the same meaning
+    final Configuration configuration = new Configuration(salt, alphabet, Math.max(minLength, 0));
+    return instances.computeIfAbsent(configuration,
+        c -> Hashids.newInstance(c.salt, c.alphabet, c.minLength));
+  }
+
+  /**
+   * Removes every instance from the registry.
+   */
+  public void clear() {
+    instances.clear();
+  }
+
+  /**
+   * Returns the amount of instances currently held by the registry.
+   *
+   * @return the amount of instances
+   */
+  public int size() {
+    return instances.size();
+  }
+
+  /**
+   * Returns the amount of lookups resolved to an instance already held by the registry.
+   *
+   * @return the amount of hits
+   */
+  public long hitCount() {
+    return instances.hits();
+  }
+
+  /**
+   * Returns the amount of lookups which required a new instance to be built.
+   *
+   * @return the amount of misses
+   */
+  public long missCount() {
+    return instances.misses();
+  }
+
+  /**
+   * Returns the amount of instances evicted from the registry to honor its maximum size.
+   *
+   * @return the amount of evictions
+   */
+  public long evictionCount() {
+    return instances.evictions();
+  }
+
+  // the configuration of an instance
+  private static final class Configuration {
+
+    private final char[] salt;
+    private final char[] alphabet;
+    private final int minLength;
+    private final int hash;
+
+    private Configuration(final char[] salt, final char[] alphabet, final int minLength) {
+      this.salt = Arrays.copyOf(salt, salt.length);
+      this.alphabet = Arrays.copyOf(alphabet, alphabet.length);
+      this.minLength = minLength;
+      this.hash = 31 * (31 * Arrays.hashCode(salt) + Arrays.hashCode(alphabet)) + minLength;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Configuration)) {
+        return false;
+      }
+      final Configuration other = (Configuration) o;
+      return hash == other.hash && minLength == other.minLength &&
+          Arrays.equals(salt, other.salt) && Arrays.equals(alphabet, other.alphabet);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package pt.davidafsilva.hashids;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, such as latencies in nanoseconds. Values are counted
+ * in logarithmic buckets, each power of two being split in linear sub-buckets, which bounds the
+ * relative error of the reported percentiles to the width of a sub-bucket (12.5%) regardless of
+ * the magnitude of the values.
+ *
+ * @author david
+ */
+final class LatencyHistogram {
+
+  // bucketing definitions
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  // the counts of each bucket
+  private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+  LatencyHistogram() {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records the given value, clamping negative ones to zero.
+   *
+   * @param value the value to be recorded
+   */
+  void record(final long value) {
+    counts[index(Math.max(value, 0))].increment();
+  }
+
+  /**
+   * Returns the amount of recorded values.
+   *
+   * @return the amount of values
+   */
+  long count() {
+    long count = 0;
+    for (final LongAdder bucketCount : counts) {
+      count += bucketCount.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall, as the highest
+   * value of its bucket.
+   *
+   * @param percentile the percentage of values, between {@code 0} and {@code 100}
+   * @return the value at the percentile, {@code 0} if no value was recorded
+   */
+  long percentile(final double percentile) {
+    final long[] snapshot = new long[counts.length];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      snapshot[i] = counts[i].sum();
+      total += snapshot[i];
+    }
+
+    // walk the buckets until reaching the rank of the percentile
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long accumulated = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      accumulated += snapshot[i];
+      if (accumulated >= rank) {
+        return i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+      }
+    }
+    return 0;
+  }
+
+  private static int index(final long value) {
+    // the first sub-buckets hold the exact small values
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long lowerBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long subBucket = index % SUB_BUCKETS;
+    return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+  }
+}
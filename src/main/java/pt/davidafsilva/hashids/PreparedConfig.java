@@ -0,0 +1,91 @@
+package pt.davidafsilva.hashids;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The prepared configuration of a {@link Hashids} instance: its salt and minimum hash length,
+ * along with the alphabet, separators and guards which result from filtering and shuffling the
+ * configured alphabet. Restoring an instance from it skips those steps, which makes it suitable
+ * for being serialized at build time and loaded on startup.
+ *
+ * @author david
+ * @see Hashids#prepare()
+ * @see Hashids#restore(PreparedConfig)
+ */
+public final class PreparedConfig implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  // the prepared properties of the algorithm
+  final char[] salt;
+  final char[] alphabet;
+  final char[] separators;
+  final char[] guards;
+  final int minLength;
+
+  /**
+   * Creates a new prepared configuration with copies of the given properties.
+   *
+   * @param salt       the salt of the algorithm
+   * @param alphabet   the filtered and shuffled alphabet
+   * @param separators the filtered and shuffled separators
+   * @param guards     the guards
+   * @param minLength  the minimum length of the hashes
+   */
+  PreparedConfig(final char[] salt, final char[] alphabet, final char[] separators,
+      final char[] guards, final int minLength) {
+    this.salt = Arrays.copyOf(salt, salt.length);
+    this.alphabet = Arrays.copyOf(alphabet, alphabet.length);
+    this.separators = Arrays.copyOf(separators, separators.length);
+    this.guards = Arrays.copyOf(guards, guards.length);
+    this.minLength = minLength;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PreparedConfig)) {
+      return false;
+    }
+    final PreparedConfig other = (PreparedConfig) o;
+    return minLength == other.minLength && Arrays.equals(salt, other.salt) &&
+        Arrays.equals(alphabet, other.alphabet) && Arrays.equals(separators, other.separators) &&
+        Arrays.equals(guards, other.guards);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(salt);
+    result = 31 * result + Arrays.hashCode(alphabet);
+    result = 31 * result + Arrays.hashCode(separators);
+    result = 31 * result + Arrays.hashCode(guards);
+    return 31 * result + minLength;
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+
+    // the serialized form is not trusted: the characters of the alphabet, separators and guards
+    // must be present and must not overlap
+    if (salt == null || alphabet == null || separators == null || guards == null ||
+        alphabet.length < 2 || separators.length == 0 || guards.length == 0) {
+      throw new InvalidObjectException("invalid prepared configuration");
+    }
+    final BitSet seen = new BitSet();
+    for (final char[] chars : new char[][]{alphabet, separators, guards}) {
+      for (final char c : chars) {
+        if (seen.get(c)) {
+          throw new InvalidObjectException("invalid prepared configuration");
+        }
+        seen.set(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package pt.davidafsilva.hashids;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author david
+ */
+public class AsciiHashidsTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+  private final AsciiHashids ascii = hashids.ascii();
+
+  @Test
+  public void encodeDecodeArray() {
+    final byte[] expected = hashids.encode(1, 2, 3).getBytes(StandardCharsets.US_ASCII);
+    assertThat(ascii.encode(1, 2, 3), equalTo(expected));
+    assertThat(ascii.encode((long[]) null), nullValue());
+
+    final byte[] frame = new byte[expected.length + 4];
+    final int length = ascii.encode(frame, 2, 1, 2, 3);
+    assertThat(length, equalTo(expected.length));
+    assertThat(ascii.decode(frame, 2, length), equalTo(new long[]{1, 2, 3}));
+
+    ascii.encode(frame, 0, 42);
+    assertThat(ascii.decodeOne(frame, 0, hashids.encode(42).length()), equalTo(42L));
+  }
+
+  @Test
+  public void encodeDecodeHeapBuffer() {
+    encodeDecodeBuffer(ByteBuffer.allocate(64));
+  }
+
+  @Test
+  public void encodeDecodeDirectBuffer() {
+    encodeDecodeBuffer(ByteBuffer.allocateDirect(64));
+  }
+
+  private void encodeDecodeBuffer(final ByteBuffer buffer) {
+    buffer.put((byte) '/');
+    ascii.encode(buffer, 1, 2, 3);
+    buffer.flip().position(1);
+    assertThat(StandardCharsets.US_ASCII.decode(buffer.duplicate()).toString(),
+        equalTo(hashids.encode(1, 2, 3)));
+    assertThat(ascii.decode(buffer), equalTo(new long[]{1, 2, 3}));
+    assertThat(buffer.hasRemaining(), equalTo(false));
+
+    buffer.clear();
+    ascii.encode(buffer, 42).flip();
+    assertThat(ascii.decodeOne(buffer), equalTo(42L));
+  }
+
+  @Test
+  public void invalidHash() {
+    final byte[] hash = ascii.encode(1, 2, 3);
+    hash[0] = (byte) 0xe9;
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("Invalid alphabet for hash");
+    ascii.decode(hash, 0, hash.length);
+  }
+
+  @Test
+  public void bufferOverflow() {
+    thrown.expect(BufferOverflowException.class);
+    ascii.encode(ByteBuffer.allocate(4), 1, 2, 3);
+  }
+
+  @Test
+  public void encodeNullNumbers() {
+    final byte[] frame = new byte[8];
+    assertThat(ascii.encode(frame, 0, (long[]) null), equalTo(0));
+    assertThat(frame, equalTo(new byte[8]));
+
+    final ByteBuffer buffer = ByteBuffer.allocate(8);
+    assertThat(ascii.encode(buffer, (long[]) null), sameInstance(buffer));
+    assertThat(buffer.position(), equalTo(0));
+  }
+
+  @Test
+  public void encodeOverflowingOffset() {
+    thrown.expect(IndexOutOfBoundsException.class);
+    thrown.expectMessage("does not fit at offset 2147483647 of array with length 64");
+    ascii.encode(new byte[64], Integer.MAX_VALUE, 1, 2, 3);
+  }
+
+  @Test
+  public void decodeOverflowingRange() {
+    thrown.expect(IndexOutOfBoundsException.class);
+    thrown.expectMessage("invalid range [2147483647, 2147483650) of array with length 8");
+    ascii.decode(new byte[8], Integer.MAX_VALUE, 3);
+  }
+
+  @Test
+  public void nonAsciiAlphabet() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("alphabet must only contain ASCII characters");
+    Hashids.newInstance("salt", "\u00e0\u00e1\u00e2\u00e3\u00e4\u00e5\u00e6\u00e7\u00e8\u00e9\u00ea" +
+        "\u00eb\u00ec\u00ed\u00ee\u00ef\u00f0\u00f1\u00f2\u00f3\u00f4\u00f5").ascii();
+  }
+}
@@ -0,0 +1,92 @@
+package pt.davidafsilva.hashids;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author david
+ */
+public class CachingHashidsTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final Hashids hashids = Hashids.newInstance("my awesome salt", 8);
+  private final CachingHashids caching = hashids.caching(16);
+
+  @Test
+  public void cachedEncode() {
+    final String hash = caching.encode(12345);
+    assertThat(hash, equalTo(hashids.encode(12345)));
+    assertThat(caching.encode(12345), sameInstance(hash));
+    assertThat(caching.encode(new long[]{12345}), sameInstance(hash));
+    assertThat(caching.encode(1, 2, 3), equalTo(hashids.encode(1, 2, 3)));
+    assertThat(caching.encode((long[]) null), nullValue());
+    assertThat(caching.hashids(), sameInstance(hashids));
+    assertThat(caching.hitCount(), equalTo(2L));
+    assertThat(caching.missCount(), equalTo(1L));
+  }
+
+  @Test
+  public void cachedDecode() {
+    final String hash = hashids.encode(1, 2, 3);
+    assertThat(caching.decode(hash), equalTo(new long[]{1, 2, 3}));
+
+    // the cached numbers are not exposed
+    caching.decode(hash)[0] = 42;
+    assertThat(caching.decode(hash), equalTo(new long[]{1, 2, 3}));
+    assertThat(caching.decodeOne(hashids.encode(42)), equalTo(42L));
+    assertThat(caching.decode(null), nullValue());
+    assertThat(caching.hitRate(), equalTo(0.5));
+  }
+
+  @Test
+  public void boundedCapacity() {
+    IntStream.range(0, 100).forEach(caching::encode);
+    assertThat(caching.evictionCount(), equalTo(84L));
+    IntStream.range(0, 100).forEach(i -> assertThat(caching.encode(i), equalTo(hashids.encode(i))));
+
+    caching.clear();
+    assertThat(caching.encode(7), equalTo(hashids.encode(7)));
+  }
+
+  @Test
+  public void invalidHashNotCached() {
+    for (int i = 0; i < 2; i++) {
+      try {
+        caching.decode("invalid");
+      } catch (final IllegalArgumentException e) {
+        // expected
+      }
+    }
+    assertThat(caching.missCount(), equalTo(2L));
+    assertThat(caching.hitCount(), equalTo(0L));
+  }
+
+  @Test
+  public void decodeOneMultipleNumbers() {
+    final String hash = hashids.encode(1, 2);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + hash);
+    caching.decodeOne(hash);
+  }
+
+  @Test
+  public void decodeOneNull() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: null");
+    try {
+      caching.decodeOne(null);
+    } finally {
+      assertThat(caching.missCount(), equalTo(0L));
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package pt.davidafsilva.hashids;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author david
+ */
+public class HashidsKeyringTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final Hashids v1 = Hashids.newInstance("first salt", 8);
+  private final Hashids v2 = Hashids.newInstance("second salt", 8);
+  private final Hashids v3 = Hashids.newInstance("third salt", 8);
+
+  @Test
+  public void encodeWithActiveKey() {
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(1, v1).withActiveKey(2, v2);
+    assertThat(keyring.activeVersion(), equalTo(2));
+    assertThat(keyring.encode(1, 2, 3), equalTo(v2.encode(1, 2, 3)));
+    assertThat(keyring.encodeOne(12345), equalTo(v2.encode(12345)));
+    assertThat(keyring.encode((long[]) null), nullValue());
+  }
+
+  @Test
+  public void decodeReportsMatchingVersion() {
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(3, v3)
+        .withKey(1, v1)
+        .withKey(2, v2);
+    final Hashids[] keys = {v1, v2, v3};
+    for (int version = 1; version <= keys.length; version++) {
+      final String hash = keys[version - 1].encode(1, 2, 3);
+      final HashidsKeyring.Decoded decoded = keyring.decode(hash);
+      assertThat(decoded.version(), equalTo(version));
+      assertThat(decoded.numbers(), equalTo(new long[]{1, 2, 3}));
+      assertThat(keyring.versionOf(hash), equalTo(version));
+    }
+  }
+
+  @Test
+  public void decodeUnknownHash() {
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(1, v1).withKey(2, v2);
+    final String hash = v3.encode(1, 2, 3);
+    assertThat(keyring.decode(hash), nullValue());
+    assertThat(keyring.decode("invalid hash!"), nullValue());
+    assertThat(keyring.decode(null), nullValue());
+    assertThat(keyring.versionOf(hash), equalTo(-1));
+    assertThat(keyring.versionOf(null), equalTo(-1));
+  }
+
+  @Test
+  public void rotateActiveKey() {
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(1, v1);
+    final String hash = keyring.encode(42);
+    final HashidsKeyring rotated = keyring.withActiveKey(2, v2);
+    assertThat(keyring.key(2), nullValue());
+    assertThat(rotated.key(1), sameInstance(v1));
+    assertThat(rotated.key(2), sameInstance(v2));
+    assertThat(rotated.decode(hash).version(), equalTo(1));
+    assertThat(rotated.decode(rotated.encode(42)).version(), equalTo(2));
+  }
+
+  @Test
+  public void singleOutcomePerDecode() {
+    final HashidsMetrics m1 = new HashidsMetrics();
+    final HashidsMetrics m2 = new HashidsMetrics();
+    final HashidsMetrics m3 = new HashidsMetrics();
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(3, v3.withListener(m3))
+        .withKey(1, v1.withListener(m1))
+        .withKey(2, v2.withListener(m2));
+
+    // decoded by the oldest key, after trying the other ones
+    final String hash = v1.encode(1, 2, 3);
+    assertThat(keyring.decode(hash).version(), equalTo(1));
+    assertThat(keyring.versionOf(hash), equalTo(1));
+    assertThat(m1.getDecodeCount(), equalTo(2L));
+    assertThat(m1.getInvalidCount(), equalTo(0L));
+    assertThat(m2.getDecodeCount() + m2.getInvalidCount(), equalTo(0L));
+    assertThat(m3.getDecodeCount() + m3.getInvalidCount(), equalTo(0L));
+
+    // rejections are reported to the active key only
+    assertThat(keyring.decode("invalid hash!"), nullValue());
+    assertThat(keyring.versionOf("aaaaaaaaaaaa"), equalTo(-1));
+    assertThat(m3.getInvalidCount(), equalTo(2L));
+    assertThat(m1.getInvalidCount() + m2.getInvalidCount(), equalTo(0L));
+  }
+
+  @Test
+  public void precheckAgainstEveryKey() {
+    final Hashids hex = Hashids.newInstance("hex salt", "0123456789abcdef");
+    final Hashids wide = Hashids.newInstance("wide salt", "ABCDEFGHIJKLMNOPQRSTUVWXYZ\u00e7\u00e3");
+    final HashidsKeyring keyring = HashidsKeyring.newInstance(1, hex)
+        .withKey(2, wide)
+        .withKey(3, v3);
+    for (final long number : new long[]{0, 1, 42, 12345, Long.MAX_VALUE}) {
+      assertThat(keyring.versionOf(hex.encode(number)), equalTo(1));
+      assertThat(keyring.versionOf(wide.encode(number)), equalTo(2));
+      assertThat(keyring.versionOf(v3.encode(number)), equalTo(3));
+      assertThat(keyring.decode(wide.encode(number)).numbers(), equalTo(new long[]{number}));
+    }
+    assertThat(keyring.versionOf("\u00e7\u00e3\u00e9"), equalTo(-1));
+    assertThat(keyring.versionOf(""), equalTo(1));
+  }
+
+  @Test
+  public void tooManyKeys() {
+    HashidsKeyring keyring = HashidsKeyring.newInstance(0, v1);
+    for (int version = 1; version < HashidsKeyring.MAX_KEYS; version++) {
+      keyring = keyring.withKey(version, v1);
+    }
+    assertThat(keyring.decode(v1.encode(7)).version(), equalTo(0));
+
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("too many keys: 65");
+    keyring.withKey(HashidsKeyring.MAX_KEYS, v2);
+  }
+
+  @Test
+  public void duplicateVersion() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("duplicate version: 1");
+    HashidsKeyring.newInstance(1, v1).withKey(2, v2).withActiveKey(1, v3);
+  }
+
+  @Test
+  public void negativeVersion() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid version: -1");
+    HashidsKeyring.newInstance(1, v1).withKey(-1, v2);
+  }
+}
@@ -0,0 +1,249 @@
+package pt.davidafsilva.hashids;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author david
+ */
+public class HashidsMetricsTest {
+
+  @Test
+  public void countOperations() {
+    final HashidsMetrics metrics = new HashidsMetrics();
+    final Hashids plain = Hashids.newInstance("my awesome salt", 8);
+    final Hashids hashids = plain.withListener(metrics);
+
+    final String hash = hashids.encode(1, 2, 3);
+    hashids.encodeOne(42);
+    hashids.decode(hash);
+    hashids.decodeOne(hashids.encode(42));
+    hashids.tryDecode("invalid");
+    hashids.tryDecodeOne(hash);
+    plain.encode(1, 2, 3);
+
+    assertThat(metrics.getEncodeCount(), equalTo(3L));
+    assertThat(metrics.getDecodeCount(), equalTo(2L));
+    assertThat(metrics.getInvalidCount(), equalTo(2L));
+    assertThat(metrics.getMaxHashLength(), equalTo((long) hash.length()));
+    assertThat(metrics.getAverageHashLength() >= 8, equalTo(true));
+    assertThat(metrics.encodeLatency(100) >= metrics.getEncodeLatencyMedian(), equalTo(true));
+  }
+
+  @Test
+  public void preservedByVariants() {
+    final List<Integer> lengths = new ArrayList<>();
+    final Hashids hashids = Hashids.newInstance("my awesome salt")
+        .withListener(new RecordingListener(lengths))
+        .precomputed();
+    hashids.encode(12345);
+    hashids.ascii().encode(12345);
+    hashids.withListener(null).encode(12345);
+    assertThat(lengths, equalTo(Arrays.asList(4, 4)));
+  }
+
+  @Test
+  public void reentrantListener() throws Exception {
+    final Hashids plain = Hashids.newInstance("my awesome salt", 8);
+    final ReentrantListener listener = new ReentrantListener();
+    final Hashids hashids = plain.withListener(listener);
+    listener.hashids = hashids;
+
+    final String hash = plain.encode(1, 2, 3);
+    assertThat(hashids.encode(1, 2, 3), equalTo(hash));
+    assertThat(hashids.encodeOne(12345), equalTo(plain.encodeOne(12345)));
+    assertThat(hashids.encode(new StringBuilder(), 1, 2, 3).toString(), equalTo(hash));
+    assertThat(hashids.encodeTo(new StringBuilder(), 12345).toString(),
+        equalTo(plain.encode(12345)));
+    assertThat(hashids.encodeHex("deadbeef"), equalTo(plain.encodeHex("deadbeef")));
+    assertThat(hashids.decode(hash), equalTo(new long[]{1, 2, 3}));
+    assertThat(hashids.tryDecode(hash), equalTo(new long[]{1, 2, 3}));
+    assertThat(hashids.decodeHex(plain.encodeHex("deadbeef")), equalTo("deadbeef"));
+    assertThat(hashids.decodeAll(Stream.of(hash, hash)).toArray(),
+        equalTo(new long[]{1, 2, 3, 1, 2, 3}));
+    assertThat(listener.calls > 0, equalTo(true));
+  }
+
+  @Test
+  public void reentrantListenerWithOtherAlphabet() {
+    final Hashids plain = Hashids.newInstance("my awesome salt", 8);
+    final ReentrantListener listener = new ReentrantListener();
+    final Hashids hashids = plain.withListener(listener);
+    listener.hashids = Hashids.newInstance("other salt", "0123456789abcdef");
+
+    final long[] numbers = {1, 42, 12345, 987654321, Long.MAX_VALUE};
+    final String[] hashes = plain.encodeEach(numbers);
+    assertThat(hashids.encodeEach(numbers), equalTo(hashes));
+    assertThat(hashids.decodeEach(hashes, new BitSet()), equalTo(numbers));
+    assertThat(listener.calls > 0, equalTo(true));
+  }
+
+  @Test
+  public void reentrantListenerOnRejection() {
+    final Hashids plain = Hashids.newInstance("my awesome salt", 8);
+    final RejectionListener listener = new RejectionListener(plain.ascii().encode(1, 2, 3));
+    final AsciiHashids ascii = plain.withListener(listener).ascii();
+    listener.ascii = ascii;
+
+    final byte[] invalid = "aaaaaaaa".getBytes(StandardCharsets.US_ASCII);
+    try {
+      ascii.decode(invalid, 0, invalid.length);
+      fail("invalid hash decoded");
+    } catch (final IllegalArgumentException e) {
+      assertThat(e.getMessage(), equalTo("invalid hash: aaaaaaaa"));
+    }
+    final byte[] pair = plain.ascii().encode(1, 2);
+    try {
+      ascii.decodeOne(pair, 0, pair.length);
+      fail("multiple numbers decoded as one");
+    } catch (final IllegalArgumentException e) {
+      assertThat(e.getMessage(), equalTo("invalid hash: " + plain.encode(1, 2)));
+    }
+    assertThat(listener.calls, equalTo(2));
+  }
+
+  @Test
+  public void rejectUnexpectedNumbers() {
+    final HashidsMetrics metrics = new HashidsMetrics();
+    final Hashids hashids = Hashids.newInstance("my awesome salt").withListener(metrics);
+    try {
+      hashids.decodeUuid(hashids.encode(1, 2));
+      fail("not an uuid decoded");
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      hashids.decodeHexToBytes(hashids.encodeHex("abc"));
+      fail("partial bytes decoded");
+    } catch (final IllegalArgumentException e) {
+      // expected
+    }
+    assertThat(metrics.getInvalidCount(), equalTo(2L));
+    assertThat(metrics.getDecodeCount(), equalTo(0L));
+  }
+
+  @Test
+  public void registerMBean() throws Exception {
+    final HashidsMetrics metrics = new HashidsMetrics();
+    Hashids.getInstance().withListener(metrics).encode(1, 2, 3);
+
+    final ObjectName name = metrics.register("registerMBean");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      assertThat(server.getAttribute(name, "EncodeCount"), equalTo(1L));
+      assertThat(server.getAttribute(name, "InvalidCount"), equalTo(0L));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+
+  @Test
+  public void latencyPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.percentile(50), equalTo(0L));
+    for (long value = 1; value <= 1000; value++) {
+      histogram.record(value);
+    }
+    histogram.record(-1);
+
+    assertThat(histogram.count(), equalTo(1001L));
+    assertThat(histogram.percentile(0), equalTo(0L));
+    assertThat(Math.abs(histogram.percentile(50) - 500) <= 500 / 8, equalTo(true));
+    assertThat(Math.abs(histogram.percentile(99) - 990) <= 990 / 8, equalTo(true));
+    assertThat(histogram.percentile(100) >= 1000, equalTo(true));
+  }
+
+  // listener which encodes and decodes other numbers with the instance it is installed on
+  private static final class ReentrantListener implements HashidsListener {
+
+    private Hashids hashids;
+    private boolean notifying;
+    private int calls;
+
+    @Override
+    public void encoded(final int count, final int length, final long nanos) {
+      reenter();
+    }
+
+    @Override
+    public void decoded(final int length, final int count, final long nanos) {
+      reenter();
+    }
+
+    @Override
+    public void rejected(final int length, final long nanos) {
+    }
+
+    private void reenter() {
+      if (!notifying) {
+        notifying = true;
+        hashids.decode(hashids.encode(987654321, 42, 7, 0));
+        notifying = false;
+        calls++;
+      }
+    }
+  }
+
+  // listener which decodes a valid hash with the ASCII view it is installed on upon rejections
+  private static final class RejectionListener implements HashidsListener {
+
+    private final byte[] hash;
+    private AsciiHashids ascii;
+    private int calls;
+
+    private RejectionListener(final byte[] hash) {
+      this.hash = hash;
+    }
+
+    @Override
+    public void encoded(final int count, final int length, final long nanos) {
+    }
+
+    @Override
+    public void decoded(final int length, final int count, final long nanos) {
+    }
+
+    @Override
+    public void rejected(final int length, final long nanos) {
+      ascii.decode(hash, 0, hash.length);
+      calls++;
+    }
+  }
+
+  // listener which records the lengths of the encoded hashes
+  private static final class RecordingListener implements HashidsListener {
+
+    private final List<Integer> lengths;
+
+    private RecordingListener(final List<Integer> lengths) {
+      this.lengths = lengths;
+    }
+
+    @Override
+    public void encoded(final int count, final int length, final long nanos) {
+      lengths.add(length);
+    }
+
+    @Override
+    public void decoded(final int length, final int count, final long nanos) {
+    }
+
+    @Override
+    public void rejected(final int length, final long nanos) {
+    }
+  }
+}
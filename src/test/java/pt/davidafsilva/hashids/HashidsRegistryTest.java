@@ -0,0 +1,101 @@
+package pt.davidafsilva.hashids;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @author david
+ */
+public class HashidsRegistryTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void sharedInstances() {
+    final HashidsRegistry registry = HashidsRegistry.newInstance();
+    final Hashids hashids = registry.get("tenant-1", 8);
+    assertThat(registry.get("tenant-1", 8), sameInstance(hashids));
+    assertThat(registry.get("tenant-1".toCharArray(), Hashids.DEFAULT_ALPHABET, 8),
+        sameInstance(hashids));
+    assertThat(registry.get("tenant-1", 9), not(sameInstance(hashids)));
+    assertThat(registry.get("tenant-2", 8), not(sameInstance(hashids)));
+    assertThat(registry.get("tenant-1"), sameInstance(registry.get("tenant-1", 0)));
+
+    assertThat(hashids.encode(1, 2, 3),
+        equalTo(Hashids.newInstance("tenant-1", 8).encode(1, 2, 3)));
+    assertThat(registry.size(), equalTo(4));
+    assertThat(registry.hitCount(), equalTo(3L));
+    assertThat(registry.missCount(), equalTo(4L));
+  }
+
+  @Test
+  public void boundedSize() {
+    final HashidsRegistry registry = HashidsRegistry.newInstance(8);
+    final Hashids first = registry.get("tenant-0");
+    IntStream.range(1, 100).forEach(i -> registry.get("tenant-" + i));
+    assertThat(registry.size() <= 8, equalTo(true));
+    assertThat(registry.evictionCount(), equalTo(100L - registry.size()));
+    assertThat(registry.get("tenant-0"), not(sameInstance(first)));
+
+    registry.clear();
+    assertThat(registry.size(), equalTo(0));
+  }
+
+  @Test
+  public void leastRecentlyUsedEviction() {
+    final HashidsRegistry registry = HashidsRegistry.newInstance(1);
+    final Hashids first = registry.get("tenant-1");
+    assertThat(registry.get("tenant-1"), sameInstance(first));
+    registry.get("tenant-2");
+    assertThat(registry.get("tenant-1"), not(sameInstance(first)));
+    assertThat(registry.evictionCount(), equalTo(2L));
+  }
+
+  @Test
+  public void globalLeastRecentlyUsedEviction() {
+    // a working set as big as the capacity is fully retained, whatever segments it falls on
+    final HashidsRegistry registry = HashidsRegistry.newInstance(64);
+    for (int round = 0; round < 5; round++) {
+      IntStream.range(0, 64).forEach(i -> registry.get("tenant-" + i));
+    }
+    assertThat(registry.size(), equalTo(64));
+    assertThat(registry.missCount(), equalTo(64L));
+    assertThat(registry.evictionCount(), equalTo(0L));
+
+    // only the least recently used instance of the whole registry is evicted
+    final Hashids first = registry.get("tenant-0");
+    registry.get("tenant-64");
+    assertThat(registry.evictionCount(), equalTo(1L));
+    assertThat(registry.get("tenant-0"), sameInstance(first));
+    assertThat(registry.size(), equalTo(64));
+  }
+
+  @Test
+  public void concurrentLookups() {
+    final HashidsRegistry registry = HashidsRegistry.newInstance(64);
+    final Set<Hashids> instances = ConcurrentHashMap.newKeySet();
+    IntStream.range(0, 10_000).parallel()
+        .forEach(i -> instances.add(registry.get("tenant-" + i % 16)));
+    assertThat(instances.size(), equalTo(16));
+    assertThat(registry.size(), equalTo(16));
+    assertThat(registry.hitCount() + registry.missCount(), equalTo(10_000L));
+  }
+
+  @Test
+  public void invalidMaximumSize() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid capacity: 0");
+    HashidsRegistry.newInstance(0);
+  }
+}
@@ -4,9 +4,27 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * @author david
@@ -57,4 +75,505 @@ public class HashidsTest {
     final String decoded = hashids.decodeHex(encoded1);
     assertThat(decoded, equalTo("507f1f77bcf86cd799439011"));
   }
+
+  @Test
+  public void hexBytesEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final byte[] bytes = {0x50, 0x7f, 0x1f, 0x77, (byte) 0xbc, (byte) 0xf8, 0x6c, (byte) 0xd7,
+        (byte) 0x99, 0x43, (byte) 0x90, 0x11, 0x00};
+    final String encoded = hashids.encodeHexBytes(bytes);
+    assertThat(encoded, equalTo(hashids.encodeHex("507f1f77bcf86cd79943901100")));
+    assertThat(hashids.decodeHexToBytes(encoded), equalTo(bytes));
+    assertThat(hashids.encodeHexBytes(new byte[0]), equalTo(""));
+    assertThat(hashids.encodeHexBytes(null), nullValue());
+    assertThat(hashids.decodeHexToBytes(null), nullValue());
+  }
+
+  @Test
+  public void uuidEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final UUID[] uuids = {
+        UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"),
+        new UUID(0, 0), new UUID(-1, -1), new UUID(0, 1), UUID.randomUUID()
+    };
+    for (final UUID uuid : uuids) {
+      final String encoded = hashids.encodeUuid(uuid);
+      final String hex = String.format("%016x%016x", uuid.getMostSignificantBits(),
+          uuid.getLeastSignificantBits());
+      assertThat(encoded, equalTo(hashids.encodeHex(hex)));
+      assertThat(encoded, equalTo(hashids.encode128(uuid.getMostSignificantBits(),
+          uuid.getLeastSignificantBits())));
+      assertThat(hashids.decodeUuid(encoded), equalTo(uuid));
+    }
+    assertThat(hashids.encodeUuid(null), nullValue());
+    assertThat(hashids.decodeUuid(null), nullValue());
+  }
+
+  @Test
+  public void uuidDecodeOtherHex() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final String encoded = hashids.encodeHex("507f1f77bcf86cd799439011");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + encoded);
+    hashids.decodeUuid(encoded);
+  }
+
+  @Test
+  public void hexPartialBytesDecode() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("hash does not hold whole bytes: ");
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    hashids.decodeHexToBytes(hashids.encodeHex("507f1f77bcf86cd799439011f"));
+  }
+
+  @Test
+  public void invalidHexInput() {
+    thrown.expect(NumberFormatException.class);
+    thrown.expectMessage("invalid hex number: 507f1g");
+    Hashids.getInstance().encodeHex("507f1g");
+  }
+
+  @Test
+  public void paddingHeavyEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 300);
+    final String encoded = hashids.encode(1, 2, 3);
+    assertThat(encoded, equalTo("KPyvrwnRbQlG21r10nj7BzNRP39A4JQ8bkopXMGeg8k0QdyJxRVrwjNz4oApPJqNOb" +
+        "8Mdo9k53l7KjwaNx2O71AndGek5JogmjbXY3xng8pE09kd7PO5lKrLyjXvBXrn3vjMJ9AdVzLPwamKqo6vXhbSkDNbYp" +
+        "xgQ8lGO2yk4R5E7e01JYRQ2ezAwab4MmN1oVG3qBlaPVvrB9zwLpyqM84E0RKQQEnzegr0Bx4VGRmXvy2YL15m7aE1Kq" +
+        "POn2LlbvB9A3pYwq5vlVydMx2YGOXLKgemEa5Bjz3eAapYdMEV"));
+    assertThat(hashids.decode(encoded), equalTo(new long[]{1, 2, 3}));
+
+    // shifting the core and its guards breaks the layout of the padding
+    assertThat(hashids.isValid(encoded.substring(1) + encoded.charAt(0)), equalTo(false));
+    assertThat(hashids.isValid(encoded.charAt(299) + encoded.substring(0, 299)), equalTo(false));
+  }
+
+  @Test
+  public void maxValueEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", "1234567890abcdef", 100);
+    final String encoded = hashids.encode(Long.MAX_VALUE);
+    assertThat(encoded, equalTo("d9d83eb0e65a4649d3859b3a06ba43db93e80604ad876d05644539b5d8be43e07" +
+        "59eb3da6458e059e48d605abe83b9d065a4"));
+    assertThat(hashids.decode(encoded), equalTo(new long[]{Long.MAX_VALUE}));
+  }
+
+  @Test
+  public void precomputedEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 32);
+    final Hashids precomputed = hashids.precomputed();
+    assertThat(hashids.precomputedTablesSize(), equalTo(0L));
+    assertThat(precomputed.precomputedTablesSize() > 0, equalTo(true));
+    assertThat(precomputed.precomputed(), sameInstance(precomputed));
+    for (long i = 0; i < 1000; i += 7) {
+      final String encoded = hashids.encode(i, i + 1);
+      assertThat(precomputed.encode(i, i + 1), equalTo(encoded));
+      assertThat(precomputed.decode(encoded), equalTo(new long[]{i, i + 1}));
+    }
+  }
+
+  @Test
+  public void precomputedTablesLimit() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("which exceeds the limit: 1024");
+    Hashids.newInstance("my awesome salt").precomputed(1024);
+  }
+
+  @Test
+  public void nearMaxValueEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    for (long n = Long.MAX_VALUE; n > Long.MAX_VALUE - 100; n--) {
+      assertThat(hashids.decode(hashids.encode(n)), equalTo(new long[]{n}));
+    }
+  }
+
+  @Test
+  public void overflowingHash() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: ");
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    // one extra digit overflows any long value
+    final String encoded = hashids.encode(Long.MAX_VALUE);
+    hashids.decode(encoded + encoded.charAt(encoded.length() - 1));
+  }
+
+  @Test
+  public void tamperedHashes() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 32);
+    final String encoded = hashids.encode(1, 2, 3);
+    for (int i = 0; i < encoded.length(); i++) {
+      for (int j = 0; j < encoded.length(); j++) {
+        final char[] tampered = encoded.toCharArray();
+        tampered[i] = encoded.charAt(j);
+        final String hash = new String(tampered);
+        try {
+          // only the hashes produced by the encoding are accepted
+          assertThat(hashids.encode(hashids.decode(hash)), equalTo(hash));
+        } catch (final IllegalArgumentException e) {
+          assertThat(hash.equals(encoded), equalTo(false));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void validation() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final String encoded = hashids.encode(1, 2, 3);
+    assertThat(hashids.isValid(encoded), equalTo(true));
+    assertThat(hashids.isValid(""), equalTo(true));
+    assertThat(hashids.isValid(null), equalTo(false));
+    assertThat(hashids.isValid(encoded.substring(1)), equalTo(false));
+    assertThat(hashids.isValid(encoded.replace(encoded.charAt(4), '-')), equalTo(false));
+    assertThat(hashids.isValid(new StringBuilder(encoded).reverse()), equalTo(false));
+  }
+
+  @Test
+  public void tryDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    assertThat(hashids.tryDecode(hashids.encode(1, 2, 3)), equalTo(new long[]{1, 2, 3}));
+    assertThat(hashids.tryDecode(new StringBuilder(hashids.encode(5))), equalTo(new long[]{5}));
+    assertThat(hashids.tryDecode("invalid hash"), nullValue());
+    assertThat(hashids.tryDecode(null), nullValue());
+    assertThat(hashids.tryDecodeOne(hashids.encode(5)), equalTo(OptionalLong.of(5)));
+    assertThat(hashids.tryDecodeOne(hashids.encode(1, 2)), equalTo(OptionalLong.empty()));
+    assertThat(hashids.tryDecodeOne("invalid hash"), equalTo(OptionalLong.empty()));
+  }
+
+  @Test
+  public void encodeEach() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final long[] numbers = {0, 1, 42, 12345, Long.MAX_VALUE};
+    final String[] hashes = hashids.encodeEach(numbers);
+    final List<String> hashesList = hashids.encodeEach(numbers, new ArrayList<>());
+    assertThat(hashes.length, equalTo(numbers.length));
+    for (int i = 0; i < numbers.length; i++) {
+      assertThat(hashes[i], equalTo(hashids.encode(numbers[i])));
+      assertThat(hashesList.get(i), equalTo(hashes[i]));
+    }
+    assertThat(hashids.encodeEach(null), nullValue());
+  }
+
+  @Test
+  public void encodeEachNegativeInput() {
+    final String[] hashes = new String[2];
+    try {
+      Hashids.getInstance().encodeEach(new long[]{1, -1}, hashes);
+      fail("negative input must not be encoded");
+    } catch (final IllegalArgumentException e) {
+      assertThat(e.getMessage(), equalTo("invalid number: -1"));
+      assertThat(hashes, equalTo(new String[2]));
+    }
+  }
+
+  @Test
+  public void encodeEachSmallOutput() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("hashes array is too small: 1 < 2");
+    Hashids.getInstance().encodeEach(new long[]{1, 2}, new String[1]);
+  }
+
+  @Test
+  public void decodeEach() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final CharSequence[] hashes = {
+        hashids.encode(0), "invalid hash", null, hashids.encode(1, 2),
+        new StringBuilder(hashids.encode(Long.MAX_VALUE))
+    };
+    final BitSet invalid = new BitSet();
+    final long[] numbers = hashids.decodeEach(hashes, invalid);
+    assertThat(numbers, equalTo(new long[]{0, -1, -1, -1, Long.MAX_VALUE}));
+    assertThat(invalid, equalTo(BitSet.valueOf(new long[]{0b01110})));
+    assertThat(hashids.decodeEach(null, invalid), nullValue());
+  }
+
+  @Test
+  public void decodeEachSmallOutput() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("numbers array is too small: 1 < 2");
+    Hashids.getInstance().decodeEach(new String[2], new long[1], new BitSet());
+  }
+
+  @Test
+  public void parallelEncodeDecodeEach() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final long[] numbers = LongStream.range(0, 100_000).map(i -> i * 7919).toArray();
+    final String[] hashes = hashids.encodeEachParallel(numbers);
+    assertThat(hashes, equalTo(hashids.encodeEach(numbers)));
+
+    hashes[42] = "invalid hash";
+    final BitSet invalid = new BitSet();
+    final long[] decoded = hashids.decodeEachParallel(hashes, invalid);
+    assertThat(invalid.cardinality(), equalTo(1));
+    assertThat(invalid.get(42), equalTo(true));
+    assertThat(decoded[42], equalTo(-1L));
+    decoded[42] = numbers[42];
+    assertThat(decoded, equalTo(numbers));
+  }
+
+  @Test
+  public void encodeToSinks() throws IOException {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 16);
+    final String expected = "[" + hashids.encode(1, 2, 3) + "," + hashids.encode(42) + "]";
+
+    final StringBuilder sb = new StringBuilder("[");
+    hashids.encodeTo(sb, 1, 2, 3).append(',');
+    hashids.encodeTo(sb, 42).append(']');
+    assertThat(sb.toString(), equalTo(expected));
+
+    final StringWriter writer = new StringWriter();
+    hashids.encode(writer.append('['), 1, 2, 3).append(',');
+    hashids.encode(writer, 42).append(']');
+    assertThat(writer.toString(), equalTo(expected));
+
+    final CharBuffer buffer = CharBuffer.allocate(expected.length());
+    hashids.encode(buffer.append('['), 1, 2, 3).append(',');
+    hashids.encode(buffer, 42).append(']');
+    assertThat(buffer.flip().toString(), equalTo(expected));
+
+    assertThat(hashids.encodeTo(new StringBuilder(), (long[]) null).length(), equalTo(0));
+  }
+
+  @Test
+  public void decodeRange() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 32);
+    final String hash = hashids.encode(1, 2, 3);
+    final String path = "/users/" + hash + "/profile";
+    final int start = path.indexOf(hash);
+    final int end = start + hash.length();
+    assertThat(hashids.decode(path, start, end), equalTo(new long[]{1, 2, 3}));
+    assertThat(hashids.decode(CharBuffer.wrap(path), start, end), equalTo(new long[]{1, 2, 3}));
+    assertThat(hashids.decode(path, start, start), equalTo(new long[0]));
+
+    final String single = "/users/" + hashids.encode(42);
+    assertThat(hashids.decodeOne(new StringBuilder(single), 7, single.length()), equalTo(42L));
+  }
+
+  @Test
+  public void decodeRangeInvalidHash() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 32);
+    final String path = "/users/" + hashids.encode(1, 2, 3);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + path.substring(8));
+    hashids.decode(path, 8, path.length());
+  }
+
+  @Test
+  public void decodeOneMultipleNumbers() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final String hash = hashids.encode(1, 2);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + hash);
+    hashids.decodeOne(hash, 0, hash.length());
+  }
+
+  @Test
+  public void decodeRangeOutOfBounds() {
+    thrown.expect(IndexOutOfBoundsException.class);
+    thrown.expectMessage("invalid range [2, 10) of sequence with length 4");
+    Hashids.getInstance().decode("abcd", 2, 10);
+  }
+
+  @Test
+  public void bigIntegerMatchesLongPath() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 32);
+    final long[] numbers = {0, 1, 12345, Long.MAX_VALUE};
+    final BigInteger[] bigNumbers = LongStream.of(numbers).mapToObj(BigInteger::valueOf)
+        .toArray(BigInteger[]::new);
+    final String hash = hashids.encodeBig(bigNumbers);
+    assertThat(hash, equalTo(hashids.encode(numbers)));
+    assertThat(hashids.decodeBig(hash), equalTo(bigNumbers));
+  }
+
+  @Test
+  public void bigIntegerEncodeDecode() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final BigInteger composite = BigInteger.ONE.shiftLeft(96).subtract(BigInteger.ONE);
+    final BigInteger huge = BigInteger.TEN.pow(1000).add(BigInteger.valueOf(42));
+    final BigInteger[] numbers = {composite, BigInteger.ZERO, huge};
+    final String hash = hashids.encodeBig(numbers);
+    assertThat(hashids.decodeBig(hash), equalTo(numbers));
+    assertThat(hashids.precomputed().encodeBig(numbers), equalTo(hash));
+    assertThat(hashids.encodeBig(), equalTo(""));
+    assertThat(hashids.decodeBig(""), equalTo(new BigInteger[0]));
+    assertThat(hashids.encodeBig((BigInteger[]) null), nullValue());
+    assertThat(hashids.decodeBig(null), nullValue());
+  }
+
+  @Test
+  public void bigIntegerNegativeInput() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid number: -1");
+    Hashids.getInstance().encodeBig(BigInteger.ONE, BigInteger.ONE.negate());
+  }
+
+  @Test
+  public void bigIntegerInvalidHash() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final String hash = hashids.encodeBig(BigInteger.ONE.shiftLeft(96));
+    final String tampered = hash.substring(0, hash.length() - 1) +
+        (hash.charAt(hash.length() - 1) == 'a' ? 'b' : 'a');
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + tampered);
+    hashids.decodeBig(tampered);
+  }
+
+  @Test
+  public void preparedConfigRestore() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", "0123456789abcdef", 16);
+    final Hashids restored = Hashids.restore(hashids.prepare());
+    assertThat(restored.encode(1, 2, 3), equalTo(hashids.encode(1, 2, 3)));
+    assertThat(restored.decode(hashids.encode(42)), equalTo(new long[]{42}));
+    assertThat(restored.prepare(), equalTo(hashids.prepare()));
+    assertThat(restored.precomputed().encode(7), equalTo(hashids.encode(7)));
+  }
+
+  @Test
+  public void preparedConfigSerialization() throws IOException, ClassNotFoundException {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 8);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(hashids.prepare());
+    }
+
+    final PreparedConfig config;
+    try (final ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      config = (PreparedConfig) in.readObject();
+    }
+    assertThat(config, equalTo(hashids.prepare()));
+    assertThat(Hashids.restore(config).encode(12345), equalTo(hashids.encode(12345)));
+  }
+
+  @Test
+  public void interleavedInstances() {
+    final Hashids[] instances = {
+        Hashids.newInstance("my awesome salt"),
+        Hashids.newInstance("my awesome salt", "0123456789abcdef", 12),
+        Hashids.newInstance("other salt", "abcdefghijklmnopqrstuvwxyz0123456789", 2000)
+    };
+    final String[] hashes = new String[instances.length];
+    for (int i = 0; i < instances.length; i++) {
+      hashes[i] = instances[i].encode(1, 2, 3);
+    }
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < instances.length; i++) {
+        assertThat(instances[i].encode(1, 2, 3), equalTo(hashes[i]));
+        assertThat(instances[i].decode(hashes[i]), equalTo(new long[]{1, 2, 3}));
+      }
+    }
+  }
+
+  @Test
+  public void wideCharactersAlphabet() {
+    // greek letters mixed with part of the default alphabet
+    final StringBuilder alphabet = new StringBuilder("abcdefghij");
+    for (char c = '\u03b1'; c <= '\u03c9'; c++) {
+      alphabet.append(c);
+    }
+    final Hashids hashids = Hashids.newInstance("my awesome salt", alphabet.toString(), 24);
+    final long[] numbers = {0, 1, 12345, Long.MAX_VALUE};
+    final String hash = hashids.encode(numbers);
+    assertThat(hash.length() >= 24, equalTo(true));
+    assertThat(hashids.decode(hash), equalTo(numbers));
+    assertThat(Hashids.restore(hashids.prepare()).decode(hash), equalTo(numbers));
+    assertThat(hashids.isValid(hash.replace(hash.charAt(hash.length() / 2), '\u0100')),
+        equalTo(false));
+  }
+
+  @Test
+  public void streamEncoderDecoder() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 8);
+    final String[] hashes = LongStream.range(0, 5000).parallel()
+        .mapToObj(hashids.encoder())
+        .toArray(String[]::new);
+    assertThat(hashes, equalTo(hashids.encodeEach(LongStream.range(0, 5000).toArray())));
+    assertThat(Stream.of(hashes).parallel().mapToLong(hashids.decoder()).toArray(),
+        equalTo(LongStream.range(0, 5000).toArray()));
+  }
+
+  @Test
+  public void streamCollector() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final long[] numbers = LongStream.range(0, 5000).map(n -> n * 31).toArray();
+    assertThat(LongStream.of(numbers).boxed().parallel().collect(hashids.toHashes()),
+        equalTo(hashids.encodeEach(numbers)));
+    assertThat(Stream.<Long>empty().collect(hashids.toHashes()), equalTo(new String[0]));
+  }
+
+  @Test
+  public void streamDecodeAll() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 8);
+    final List<String> hashes = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      hashes.add(i % 2 == 0 ? hashids.encode(i) : hashids.encode(i, i));
+    }
+    final long[] expected = LongStream.range(0, 5000)
+        .flatMap(i -> i % 2 == 0 ? LongStream.of(i) : LongStream.of(i, i))
+        .toArray();
+    assertThat(hashids.decodeAll(hashes.stream()).toArray(), equalTo(expected));
+    assertThat(hashids.decodeAll(hashes.parallelStream()).toArray(), equalTo(expected));
+    assertThat(hashids.decodeAll(hashes.stream()).mapToObj(hashids.encoder()).count(),
+        equalTo((long) expected.length));
+  }
+
+  @Test
+  public void streamDecodeAllInvalidHash() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: abcd");
+    hashids.decodeAll(Stream.of(hashids.encode(1), "abcd")).sum();
+  }
+
+  @Test
+  public void encodeDecodeOne() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt", 24);
+    for (final long number : new long[]{0, 1, 99, 100, 12345, Long.MAX_VALUE}) {
+      final String hash = hashids.encodeOne(number);
+      assertThat(hash, equalTo(hashids.encode(new long[]{number})));
+      assertThat(hashids.precomputed().encodeOne(number), equalTo(hash));
+      assertThat(hashids.decodeOne(hash), equalTo(number));
+    }
+    assertThat(Hashids.newInstance("my awesome salt").encodeOne(12345), equalTo("g84q"));
+  }
+
+  @Test
+  public void decodeOneInvalidHash() {
+    final Hashids hashids = Hashids.newInstance("my awesome salt");
+    final String hash = hashids.encode(1, 2);
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid hash: " + hash);
+    hashids.decodeOne(hash);
+  }
+
+  @Test
+  public void encodedLength() {
+    for (final int minLength : new int[]{0, 8, 64}) {
+      final Hashids hashids = Hashids.newInstance("my awesome salt", "0123456789abcdef", minLength);
+      final long[][] inputs = {{0}, {1, 2, 3}, {15, 16, 255, 256}, {Long.MAX_VALUE},
+          {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE}};
+      for (final long[] numbers : inputs) {
+        final int length = hashids.encode(numbers).length();
+        assertThat(hashids.encodedLength(numbers), equalTo(length));
+        assertThat(hashids.maxEncodedLength(numbers.length) >= length, equalTo(true));
+      }
+      assertThat(hashids.maxEncodedLength(3),
+          equalTo(hashids.encodedLength(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE)));
+      assertThat(hashids.encodedLength(), equalTo(0));
+      assertThat(hashids.maxEncodedLength(0), equalTo(0));
+    }
+  }
+
+  @Test
+  public void encodedLengthNegativeNumber() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid number: -1");
+    Hashids.getInstance().encodedLength(1, -1);
+  }
+
+  @Test
+  public void maxEncodedLengthNegativeCount() {
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("invalid count: -1");
+    Hashids.getInstance().maxEncodedLength(-1);
+  }
 }